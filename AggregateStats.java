@@ -0,0 +1,51 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The totals of the statistics of many games (see StatsAggregator). Squares are numbered as in BitBoard.
+ *
+ * @param games     Number of games.
+ * @param p1Wins    Number of games won by player 1.
+ * @param p2Wins    Number of games won by player 2 (the rest didn't finish).
+ * @param plies     Total number of movements.
+ * @param visitors  For every square, the total number of different pieces that stepped on it in a game.
+ * @param captures  For every square, the number of pieces killed on it.
+ * @param kills     For every number of kills, the number of pawns that made it in a game (the last bucket counts
+ *                  larger numbers too).
+ * @param distances For every distance, the number of pieces that walked it in a game (the last bucket counts larger
+ *                  distances too).
+ */
+public record AggregateStats(long games, long p1Wins, long p2Wins, long plies, long[] visitors, long[] captures,
+                             long[] kills, long[] distances) {
+
+    /**
+     * Writes the statistics as CSV files into a given directory (created if needed): summary.csv, squares.csv
+     * (heatmaps by x and y), kills.csv and distances.csv.
+     *
+     * @param directory Given directory.
+     */
+    public void writeCsv(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (Writer out = Files.newBufferedWriter(directory.resolve("summary.csv"))) {
+            out.write("games,player1Wins,player2Wins,unfinished,plies\n");
+            out.write(games + "," + p1Wins + "," + p2Wins + "," + (games - p1Wins - p2Wins) + "," + plies + "\n");
+        }
+        try (Writer out = Files.newBufferedWriter(directory.resolve("squares.csv"))) {
+            out.write("x,y,visitors,captures\n");
+            for (int sq = 0; sq < BitBoard.SQUARES; sq++)
+                out.write(BitBoard.squareX(sq) + "," + BitBoard.squareY(sq) + "," + visitors[sq] + "," + captures[sq] + "\n");
+        }
+        writeDistribution(directory.resolve("kills.csv"), "kills,pawns\n", kills);
+        writeDistribution(directory.resolve("distances.csv"), "distance,pieces\n", distances);
+    }
+
+    private static void writeDistribution(Path file, String header, long[] counts) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file)) {
+            out.write(header);
+            for (int i = 0; i < counts.length; i++)
+                out.write(i + "," + counts[i] + "\n");
+        }
+    }
+}
@@ -0,0 +1,142 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands the events of a game over to another listener on a dispatch thread of its own, through a bounded queue, so a
+ * slow listener (logging, metrics, UI) doesn't slow the game down. The events are queued as primitives in preallocated
+ * arrays, so queueing them doesn't allocate. When the queue is full, new events are dropped (and counted) instead of
+ * making the game wait. An exception thrown by the target is counted (see getFailedEvents()) and doesn't stop the
+ * dispatch of later events.
+ */
+public class AsyncGameListener implements GameListener, AutoCloseable {
+    private static final int MOVE = 0, CAPTURE = 1, UNDO = 2, GAME_END = 3, RESET = 4;
+    private final GameListener target;
+    private final long[] events;    // queued events, packed by pack()
+    private final Player[] winners; // the winners of the queued GAME_END events, at their indices in 'events'
+    private int head, size;         // index of the oldest queued event, and the number of queued events
+    private boolean closed;
+    private final LongAdder dropped = new LongAdder(), failed = new LongAdder();
+    private final Thread dispatcher;
+
+    /**
+     * @param target   The listener to dispatch the events to (on the dispatch thread).
+     * @param capacity The maximal number of events waiting to be dispatched.
+     */
+    public AsyncGameListener(GameListener target, int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.target = target;
+        events = new long[capacity];
+        winners = new Player[capacity];
+        dispatcher = Thread.ofPlatform().daemon().name("game-events").start(this::dispatch);
+    }
+
+    @Override
+    public void onMove(int from, int to) {
+        offer(pack(MOVE, from, to, 0), null);
+    }
+
+    @Override
+    public void onCapture(int killerSquare, int victimSquare) {
+        offer(pack(CAPTURE, killerSquare, victimSquare, 0), null);
+    }
+
+    @Override
+    public void onUndo(int from, int to, int restored) {
+        offer(pack(UNDO, from, to, restored), null);
+    }
+
+    @Override
+    public void onGameEnd(Player winner, int plies) {
+        offer(pack(GAME_END, 0, 0, plies), winner);
+    }
+
+    @Override
+    public void onReset() {
+        offer(pack(RESET, 0, 0, 0), null);
+    }
+
+    /**
+     * @return The number of events dropped because the queue was full.
+     */
+    public long getDroppedEvents() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return The number of events whose dispatch threw an exception from the target.
+     */
+    public long getFailedEvents() {
+        return failed.sum();
+    }
+
+    /**
+     * Dispatches the events that are already queued, and then stops the dispatch thread. Later events are dropped.
+     * If the calling thread is interrupted meanwhile, returns right away (with its interrupt status set).
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long pack(int type, int sq1, int sq2, int value) {
+        return (long) type << 48 | (long) sq1 << 40 | (long) sq2 << 32 | value & 0xFFFFFFFFL;
+    }
+
+    private synchronized void offer(long event, Player winner) {
+        if (closed || size == events.length) {
+            dropped.increment();
+            return;
+        }
+        int tail = (head + size) % events.length;
+        events[tail] = event;
+        winners[tail] = winner;
+        if (size++ == 0)
+            notifyAll();
+    }
+
+    /**
+     * The loop of the dispatch thread: takes the queued events one by one and calls the target with them.
+     */
+    private void dispatch() {
+        while (true) {
+            long event;
+            Player winner;
+            synchronized (this) {
+                while (size == 0 && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (size == 0)
+                    return; // closed, and everything was dispatched
+                event = events[head];
+                winner = winners[head];
+                winners[head] = null;
+                head = (head + 1) % events.length;
+                size--;
+            }
+            int sq1 = (int) (event >>> 40) & 0xFF, sq2 = (int) (event >>> 32) & 0xFF, value = (int) event;
+            try {
+                switch ((int) (event >>> 48)) {
+                    case MOVE -> target.onMove(sq1, sq2);
+                    case CAPTURE -> target.onCapture(sq1, sq2);
+                    case UNDO -> target.onUndo(sq1, sq2, value);
+                    case GAME_END -> target.onGameEnd(winner, value);
+                    default -> target.onReset();
+                }
+            } catch (RuntimeException e) {  // a failing listener must not stop the dispatch of later events
+                failed.increment();
+            }
+        }
+    }
+}
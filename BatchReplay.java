@@ -0,0 +1,243 @@
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * A headless (no GUI) command-line replayer of recorded games, in the format of resources/inputs: a list of "(x, y)"
+ * pairs, where every 2 consecutive pairs are the start and end positions of a movement.
+ * Walks an input directory (recursively) and replays every game in its own GameLogic, on a virtual thread per file.
+ * The files are streamed through MoveListParser, which feeds the movements into the game as they're read, and the
+ * number of files in progress is bounded, so memory use depends on neither the number nor the size of the files.
+ * A file may hold several concatenated games, which are named "file#2", "file#3"... after the first.
+ * For every game that finished, its stats are written into the output directory, under the same relative path (with
+ * "input" replaced by "output" in the file name, as in resources/, and "_2", "_3"... added for the later games of a
+ * file). A line per game is appended to results.csv (in completion order), along with any problem of the file and
+ * its byte offset, and the totals are written to summary.txt. The statistics of all the valid games are
+ * aggregated (see StatsAggregator) and written as CSV files into the "aggregate" subdirectory.
+ * Usage: java BatchReplay inputDir outputDir [maxGamesInProgress]
+ */
+public class BatchReplay {
+    private final Path inputDir, outputDir;
+    private final Semaphore inProgress;
+    private final LongAdder games = new LongAdder(), p1Wins = new LongAdder(), p2Wins = new LongAdder(),
+            unfinished = new LongAdder(), errors = new LongAdder(), plies = new LongAdder();
+    private final StatsAggregator aggregator = new StatsAggregator();
+    private Writer results;
+
+    /**
+     * @param inputDir           Directory of the recorded games.
+     * @param outputDir          Directory for the stats and the summary (created if needed).
+     * @param maxGamesInProgress Maximal number of games that are read and replayed at the same time.
+     */
+    public BatchReplay(Path inputDir, Path outputDir, int maxGamesInProgress) {
+        this.inputDir = inputDir;
+        this.outputDir = outputDir;
+        inProgress = new Semaphore(maxGamesInProgress);
+    }
+
+    /**
+     * Replays all the games of the input directory and writes their stats and the summary.
+     *
+     * @return The summary.
+     */
+    public String run() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Files.createDirectories(outputDir);
+        try (Writer resultsWriter = Files.newBufferedWriter(outputDir.resolve("results.csv"));
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             Stream<Path> files = Files.walk(inputDir)) {
+            results = resultsWriter;
+            results.write("file,result,plies\n");
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                inProgress.acquire();
+                executor.execute(() -> {
+                    try {
+                        replay(file);
+                    } catch (RuntimeException e) {  // e.g. results.csv can't be written
+                        errors.increment();
+                    } finally {
+                        inProgress.release();
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        String summary = String.format("games: %d%nplayer 1 wins: %d%nplayer 2 wins: %d%nunfinished: %d%nerrors: %d%n"
+                        + "plies: %d%nseconds: %.3f%ngames/sec: %.1f%n", games.sum(), p1Wins.sum(), p2Wins.sum(),
+                unfinished.sum(), errors.sum(), plies.sum(), seconds, games.sum() / Math.max(seconds, 1e-9));
+        Files.writeString(outputDir.resolve("summary.txt"), summary);
+        aggregator.snapshot().writeCsv(outputDir.resolve("aggregate"));
+        return summary;
+    }
+
+    /**
+     * Replays the recorded games of a single file, writes their stats (if they finished) and records their results.
+     *
+     * @param file The recorded games.
+     */
+    private void replay(Path file) {
+        FileReplay replay = new FileReplay(file);
+        try (FileChannel channel = FileChannel.open(file)) {
+            MoveListParser.parse(channel, replay);
+        } catch (IOException | UncheckedIOException e) {
+            replay.fail("error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replays the games of a file as the parser finds them. Keeps only the first position of the current movement.
+     */
+    private class FileReplay implements MoveListParser.Handler {
+        private final Path file;
+        private int number, ply, startX, startY;
+        private long startOffset;
+        private boolean hasStart;
+        private GameLogic gameLogic;
+        private InMemoryStatsSink stats;
+        private String error;
+
+        FileReplay(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public void onGameStart(long offset) {
+            number++;
+            stats = new InMemoryStatsSink();
+            gameLogic = new GameLogic(stats);
+            ply = 0;
+            hasStart = false;
+            error = null;
+        }
+
+        @Override
+        public void onPosition(int x, int y, long offset) {
+            if (error != null)
+                return;
+            if (!hasStart) {
+                startX = x;
+                startY = y;
+                startOffset = offset;
+                hasStart = true;
+                return;
+            }
+            hasStart = false;
+            if (gameLogic.isGameFinished() || !gameLogic.move(Position.of(startX, startY), Position.of(x, y)))
+                error = "invalid move " + (ply + 1) + " at byte " + startOffset;
+            else
+                ply++;
+        }
+
+        @Override
+        public void onGameEnd(long offset) {
+            if (error == null && hasStart)
+                error = "unpaired position at byte " + startOffset;
+            endGame();
+        }
+
+        @Override
+        public void onError(String message, long offset) {
+            if (gameLogic == null) {    // between games
+                errors.increment();
+                writeResult(inputDir.relativize(file).toString(), message + " at byte " + offset, 0);
+            } else if (error == null)
+                error = message + " at byte " + offset;
+        }
+
+        /**
+         * Ends the current game (or a new one, if there's none) with an error.
+         */
+        void fail(String message) {
+            if (gameLogic == null)
+                onGameStart(0);
+            error = message;
+            endGame();
+        }
+
+        /**
+         * Writes the stats of the current game (if it finished) and records its result.
+         */
+        private void endGame() {
+            String name = inputDir.relativize(file).toString(), result;
+            if (error != null) {
+                result = error;
+                errors.increment();
+            } else if (gameLogic.isGameFinished()) {
+                aggregator.add(gameLogic);
+                boolean p1Won = gameLogic.getFirstPlayer().getWins() > 0;
+                result = p1Won ? "player 1" : "player 2";
+                (p1Won ? p1Wins : p2Wins).increment();
+                try {
+                    Files.createDirectories(statsFile().getParent());
+                    Files.writeString(statsFile(), stats.getLastReport());
+                } catch (IOException e) {
+                    result = "error: " + e.getMessage();
+                    errors.increment();
+                }
+            } else {
+                aggregator.add(gameLogic);
+                result = "unfinished";
+                unfinished.increment();
+            }
+            games.increment();
+            plies.add(ply);
+            writeResult(number == 1 ? name : name + "#" + number, result, ply);
+            gameLogic = null;
+            stats = null;
+        }
+
+        private Path statsFile() {
+            String name = file.getFileName().toString().replace("input", "output");
+            if (number > 1) {
+                int dot = name.lastIndexOf('.');
+                name = dot < 0 ? name + "_" + number : name.substring(0, dot) + "_" + number + name.substring(dot);
+            }
+            return outputDir.resolve(inputDir.relativize(file)).resolveSibling(name);
+        }
+    }
+
+    /**
+     * Appends a line to results.csv.
+     */
+    private void writeResult(String name, String result, int plies) {
+        String line = csv(name) + "," + csv(result) + "," + plies + "\n";
+        synchronized (this) {
+            try {
+                results.write(line);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * @return A given value as a CSV field: in quotes (with its quotes doubled) if it has a comma, a quote or a line
+     * break, otherwise as it is.
+     */
+    static String csv(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r')
+                return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: java BatchReplay inputDir outputDir [maxGamesInProgress]");
+            System.exit(1);
+        }
+        int maxGamesInProgress = args.length > 2 ? Integer.parseInt(args[2]) : 4 * Runtime.getRuntime().availableProcessors();
+        System.out.print(new BatchReplay(Path.of(args[0]), Path.of(args[1]), maxGamesInProgress).run());
+    }
+}
@@ -0,0 +1,390 @@
+/**
+ * A bitboard representation of the playing board.
+ * Every square (x, y) is numbered x * BOARD_SIZE + y, so the 121 squares of the board are packed into two 64-bit words
+ * per player (squares 0-63 in the 'lo' word and squares 64-120 in the 'hi' word). The king is also part of Player 1's
+ * occupancy, and its square is stored separately.
+ */
+public class BitBoard {
+    public static final int SIZE = GameLogic.BOARD_SIZE, SQUARES = SIZE * SIZE;
+    public static final int P1 = 0, P2 = 1, NONE = -1;    // indices of the players' occupancy words
+    public static final int LEFT = 0, UP = 1, RIGHT = 2, DOWN = 3;
+    /* Flags of killsBy() and makeMove() results, on top of the LEFT..DOWN bits of the killed pawns */
+    public static final int KING_CAPTURED = 1 << 4, KING_ESCAPED = 1 << 5, GAME_OVER = KING_CAPTURED | KING_ESCAPED;
+    private static final byte[] SQUARE_X = new byte[SQUARES], SQUARE_Y = new byte[SQUARES];
+    /* SLIDES[i << SIZE | occupancy]: the squares reachable from index i of a line (row or column) with a given occupancy
+     * of the line (bit per index), in both directions. A square is reachable if the squares up to it are empty */
+    private static final short[] SLIDES = new short[SIZE << SIZE];
+    private static final int LINE_CORNERS = 1 | 1 << (SIZE - 1);    // the indices of the corners on an edge line
+    /* Lookup tables by square * 4 + direction: the adjacent square, and the square after it (NONE if outside the board) */
+    private static final int[] NEIGHBORS = new int[SQUARES * 4], PINCERS = new int[SQUARES * 4];
+    private static final boolean[] CORNERS = new boolean[SQUARES];
+    private final long[] lo = new long[2], hi = new long[2];
+    /* Occupancy of each row (the squares with a given x, bit per y) and of each column (given y, bit per x) */
+    private final short[] rowOccupancy = new short[SIZE], columnOccupancy = new short[SIZE];
+    private int kingSquare = NONE;
+    private long hash;  // Zobrist key of the pieces on the board, updated on every change
+
+    public BitBoard() {
+    }
+
+    /**
+     * Creates a copy of a given board.
+     *
+     * @param other Given board.
+     */
+    public BitBoard(BitBoard other) {
+        copyFrom(other);
+    }
+
+    /**
+     * Makes this board a copy of a given board, without allocating.
+     *
+     * @param other Given board.
+     */
+    public final void copyFrom(BitBoard other) {
+        System.arraycopy(other.lo, 0, lo, 0, 2);
+        System.arraycopy(other.hi, 0, hi, 0, 2);
+        System.arraycopy(other.rowOccupancy, 0, rowOccupancy, 0, SIZE);
+        System.arraycopy(other.columnOccupancy, 0, columnOccupancy, 0, SIZE);
+        kingSquare = other.kingSquare;
+        hash = other.hash;
+    }
+
+    static {
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                int sq = square(x, y);
+                SQUARE_X[sq] = (byte) x;
+                SQUARE_Y[sq] = (byte) y;
+                CORNERS[sq] = (x == 0 || x == SIZE - 1) && (y == 0 || y == SIZE - 1);
+                for (int dir = LEFT; dir <= DOWN; dir++) {
+                    int dx = dir == LEFT ? -1 : dir == RIGHT ? 1 : 0, dy = dir == UP ? -1 : dir == DOWN ? 1 : 0;
+                    NEIGHBORS[sq * 4 + dir] = squareOrNone(x + dx, y + dy);
+                    PINCERS[sq * 4 + dir] = squareOrNone(x + 2 * dx, y + 2 * dy);
+                }
+            }
+        }
+    }
+
+    static {
+        for (int i = 0; i < SIZE; i++) {
+            for (int occupancy = 0; occupancy < 1 << SIZE; occupancy++) {
+                int reachable = 0;
+                for (int j = i - 1; j >= 0 && (occupancy >>> j & 1) == 0; j--)
+                    reachable |= 1 << j;
+                for (int j = i + 1; j < SIZE && (occupancy >>> j & 1) == 0; j++)
+                    reachable |= 1 << j;
+                SLIDES[i << SIZE | occupancy] = (short) reachable;
+            }
+        }
+    }
+
+    private static int squareOrNone(int x, int y) {
+        return x < 0 || y < 0 || x >= SIZE || y >= SIZE ? NONE : square(x, y);
+    }
+
+    /**
+     * @return The number of the square (x, y).
+     */
+    public static int square(int x, int y) {
+        return x * SIZE + y;
+    }
+
+    /**
+     * @return The x coordinate of a given square.
+     */
+    public static int squareX(int sq) {
+        return SQUARE_X[sq];
+    }
+
+    /**
+     * @return The y coordinate of a given square.
+     */
+    public static int squareY(int sq) {
+        return SQUARE_Y[sq];
+    }
+
+    /**
+     * @return True if the given square is a corner on the game board, False otherwise (also for NONE).
+     */
+    public static boolean isCorner(int sq) {
+        return sq != NONE && CORNERS[sq];
+    }
+
+    /**
+     * Returns the neighbor-square of a given square in a given direction.
+     *
+     * @param sq  Given square.
+     * @param dir LEFT (x-1), UP (y-1), RIGHT (x+1) or DOWN (y+1).
+     * @return The adjacent square in the given direction, or NONE if it's outside the board.
+     */
+    public static int neighbor(int sq, int dir) {
+        return NEIGHBORS[sq * 4 + dir];
+    }
+
+    /**
+     * Returns the square 2 steps away from a given square in a given direction, which is the square that (along with
+     * the given one) traps the piece between them.
+     *
+     * @param sq  Given square.
+     * @param dir Given direction.
+     * @return The square 2 steps away in the given direction, or NONE if it's outside the board.
+     */
+    public static int pincer(int sq, int dir) {
+        return PINCERS[sq * 4 + dir];
+    }
+
+    public int getKingSquare() {
+        return kingSquare;
+    }
+
+    /**
+     * @return The Zobrist key of the pieces on the board.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @param sideToMove The player whose turn it is.
+     * @return The Zobrist key of the position: the pieces on the board and the side to move.
+     */
+    public long getKey(int sideToMove) {
+        return sideToMove == P2 ? hash ^ Zobrist.SIDE_TO_MOVE : hash;
+    }
+
+    /**
+     * @return The occupancy word of squares 0-63 of a given player.
+     */
+    public long getLo(int side) {
+        return lo[side];
+    }
+
+    /**
+     * @return The occupancy word of squares 64-120 of a given player.
+     */
+    public long getHi(int side) {
+        return hi[side];
+    }
+
+    /**
+     * @return True if there is a piece (of any player) on the given square, False otherwise.
+     */
+    public boolean isOccupied(int sq) {
+        if (sq < 64)
+            return ((lo[P1] | lo[P2]) >>> sq & 1L) != 0;
+        return ((hi[P1] | hi[P2]) >>> (sq - 64) & 1L) != 0;
+    }
+
+    /**
+     * @return P1 or P2 according to the owner of the piece on the given square, or NONE if the square is empty.
+     */
+    public int sideAt(int sq) {
+        if (sq < 64) {
+            if ((lo[P1] >>> sq & 1L) != 0)
+                return P1;
+            return (lo[P2] >>> sq & 1L) != 0 ? P2 : NONE;
+        }
+        if ((hi[P1] >>> (sq - 64) & 1L) != 0)
+            return P1;
+        return (hi[P2] >>> (sq - 64) & 1L) != 0 ? P2 : NONE;
+    }
+
+    /**
+     * Places a piece of a given player on a square, replacing the piece that was there (if there was one).
+     *
+     * @param sq   Given square.
+     * @param side P1 or P2.
+     */
+    public void put(int sq, int side) {
+        remove(sq);
+        if (sq < 64)
+            lo[side] |= 1L << sq;
+        else
+            hi[side] |= 1L << (sq - 64);
+        rowOccupancy[SQUARE_X[sq]] |= (short) (1 << SQUARE_Y[sq]);
+        columnOccupancy[SQUARE_Y[sq]] |= (short) (1 << SQUARE_X[sq]);
+        hash ^= Zobrist.pawnKey(side, sq);
+    }
+
+    /**
+     * Places the king on a square, replacing the piece that was there (if there was one).
+     */
+    public void putKing(int sq) {
+        put(sq, P1);
+        kingSquare = sq;
+        hash ^= Zobrist.pawnKey(P1, sq) ^ Zobrist.kingKey(sq);
+    }
+
+    /**
+     * Removes the piece (if there is one) from a given square.
+     */
+    public void remove(int sq) {
+        if (sq == kingSquare)
+            hash ^= Zobrist.kingKey(sq);
+        else if (isOccupied(sq))
+            hash ^= Zobrist.pawnKey(sideAt(sq), sq);
+        if (sq < 64) {
+            long mask = ~(1L << sq);
+            lo[P1] &= mask;
+            lo[P2] &= mask;
+        } else {
+            long mask = ~(1L << (sq - 64));
+            hi[P1] &= mask;
+            hi[P2] &= mask;
+        }
+        rowOccupancy[SQUARE_X[sq]] &= (short) ~(1 << SQUARE_Y[sq]);
+        columnOccupancy[SQUARE_Y[sq]] &= (short) ~(1 << SQUARE_X[sq]);
+        if (sq == kingSquare)
+            kingSquare = NONE;
+    }
+
+    /**
+     * Moves the piece on square 'from' to square 'to'. Doesn't check the legality of the movement.
+     */
+    public void movePiece(int from, int to) {
+        if (from == kingSquare) {
+            remove(from);
+            putKing(to);
+        } else {
+            int side = sideAt(from);
+            remove(from);
+            put(to, side);
+        }
+    }
+
+    /**
+     * Checks if the path between 2 given squares is on a vertical or horizontal line and also if it's clear for a
+     * piece to pass through. Done by a single lookup of the squares reachable from 'from' along the line, as if 'to'
+     * was empty.
+     *
+     * @param from Starting square.
+     * @param to   End square.
+     * @return True if a piece can move along the path between 'from' and 'to', False otherwise.
+     */
+    public boolean isPathClear(int from, int to) {
+        int x1 = SQUARE_X[from], y1 = SQUARE_Y[from], x2 = SQUARE_X[to], y2 = SQUARE_Y[to];
+        if (x1 == x2 && y1 != y2)
+            return (SLIDES[y1 << SIZE | rowOccupancy[x1] & ~(1 << y2)] >>> y2 & 1) != 0;
+        if (y1 == y2 && x1 != x2)
+            return (SLIDES[x1 << SIZE | columnOccupancy[y1] & ~(1 << x2)] >>> x2 & 1) != 0;
+        return false;
+    }
+
+    /**
+     * Returns the squares that the piece on a given square can move to along its row, which are the empty squares up
+     * to the nearest piece in each direction, without the corners unless the piece is the king.
+     *
+     * @param sq Given square.
+     * @return A bit (1 << y) for each square (x, y) that can be reached, where x is the x of the given square.
+     */
+    public int rowReach(int sq) {
+        int x = SQUARE_X[sq], reachable = SLIDES[SQUARE_Y[sq] << SIZE | rowOccupancy[x]];
+        if (sq != kingSquare && (x == 0 || x == SIZE - 1))
+            reachable &= ~LINE_CORNERS;
+        return reachable;
+    }
+
+    /**
+     * Same as rowReach(), along the column of the given square.
+     *
+     * @param sq Given square.
+     * @return A bit (1 << x) for each square (x, y) that can be reached, where y is the y of the given square.
+     */
+    public int columnReach(int sq) {
+        int y = SQUARE_Y[sq], reachable = SLIDES[SQUARE_X[sq] << SIZE | columnOccupancy[y]];
+        if (sq != kingSquare && (y == 0 || y == SIZE - 1))
+            reachable &= ~LINE_CORNERS;
+        return reachable;
+    }
+
+    /**
+     * Checks if the neighbor-square of a given square (in a given direction) is hostile to a piece of a given player,
+     * meaning that it's either outside the board or holds a pawn (not the king) of the other player.
+     *
+     * @param sq         Given square.
+     * @param dir        Given direction.
+     * @param victimSide The player who owns the piece on 'sq'.
+     * @return True if the neighbor-square is hostile, False otherwise.
+     */
+    public boolean isHostile(int sq, int dir, int victimSide) {
+        int n = neighbor(sq, dir);
+        if (n == NONE)
+            return true;
+        return n != kingSquare && sideAt(n) == 1 - victimSide;
+    }
+
+    /**
+     * @return True if the king is surrounded by hostile squares from all 4 directions, False otherwise.
+     */
+    public boolean isKingSurrounded() {
+        for (int dir = LEFT; dir <= DOWN; dir++) {
+            if (!isHostile(kingSquare, dir, P1))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks which enemy pieces are killed by the piece that has just moved to a given square, without changing the board.
+     * The neighbors are checked in this order: left, up, right, down. A pawn is killed if it's trapped between the killer
+     * and a hostile square or a corner. The king is killed if all 4 of its sides are hostile, in which case the
+     * directions after the king's are not checked anymore.
+     *
+     * @param killerSquare The square to which a piece has been moved in the last turn.
+     * @return A bit (1 << direction) for each direction in which a pawn was killed, plus KING_ESCAPED if the killer is
+     * the king and reached a corner, or KING_CAPTURED if the king was killed.
+     */
+    public int killsBy(int killerSquare) {
+        if (killerSquare == kingSquare)
+            return isCorner(killerSquare) ? KING_ESCAPED : 0;
+        int victimSide = 1 - sideAt(killerSquare), kills = 0;
+        for (int dir = LEFT; dir <= DOWN; dir++) {
+            int victim = NEIGHBORS[killerSquare * 4 + dir];
+            if (victim != NONE && sideAt(victim) == victimSide) {
+                if (victim == kingSquare) {
+                    if (isKingSurrounded())
+                        return kills | KING_CAPTURED;
+                } else {
+                    int pincer = PINCERS[killerSquare * 4 + dir];
+                    if (pincer == NONE || CORNERS[pincer] || pincer != kingSquare && sideAt(pincer) == 1 - victimSide)
+                        kills |= 1 << dir;
+                }
+            }
+        }
+        return kills;
+    }
+
+    /**
+     * Makes a (legal) movement and removes the pawns it killed from the board. The king is never removed.
+     *
+     * @param from Starting square.
+     * @param to   End square.
+     * @return The result of killsBy(to), which is needed for unmakeMove().
+     */
+    public int makeMove(int from, int to) {
+        movePiece(from, to);
+        int kills = killsBy(to);
+        for (int dir = LEFT; dir <= DOWN; dir++) {
+            if ((kills & 1 << dir) != 0)
+                remove(neighbor(to, dir));
+        }
+        return kills;
+    }
+
+    /**
+     * Cancels a movement made by makeMove(), restoring the pawns it killed.
+     *
+     * @param from  Starting square of the movement.
+     * @param to    End square of the movement.
+     * @param kills The value that makeMove() returned.
+     */
+    public void unmakeMove(int from, int to, int kills) {
+        int victimSide = 1 - sideAt(to);
+        for (int dir = LEFT; dir <= DOWN; dir++) {
+            if ((kills & 1 << dir) != 0)
+                put(neighbor(to, dir), victimSide);
+        }
+        movePiece(to, from);
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * An immutable snapshot of the board of a game: the square of every piece (by index, as in PieceRegistry) and whose
+ * turn it is, packed into 5 longs. It's taken from a game by GameLogic.snapshot() and may be restored into any game by
+ * GameLogic.restore(), or turned into a BitBoard for analysis, on any thread.
+ * Every long holds the squares of 9 pieces, 7 bits each (DEAD for pieces that aren't on the board). The flags are in
+ * the highest bit of the first 2 longs.
+ */
+public final class BoardSnapshot {
+    private static final int BITS = 7, PER_WORD = 9;
+    static final int WORDS = (PieceRegistry.PIECES + PER_WORD - 1) / PER_WORD;
+    private static final int DEAD = (1 << BITS) - 1;
+    private final long w0, w1, w2, w3, w4;
+
+    private BoardSnapshot(long[] words) {
+        w0 = words[0];
+        w1 = words[1];
+        w2 = words[2];
+        w3 = words[3];
+        w4 = words[4];
+    }
+
+    /**
+     * @param squares          The square of every piece by index, or BitBoard.NONE for pieces that aren't on the board.
+     * @param secondPlayerTurn True if it's the turn of player 2, False otherwise.
+     * @param gameFinished     True if the game is finished, False otherwise.
+     * @return A snapshot of the given board.
+     */
+    public static BoardSnapshot of(int[] squares, boolean secondPlayerTurn, boolean gameFinished) {
+        long[] words = new long[WORDS];
+        for (int piece = 0; piece < PieceRegistry.PIECES; piece++) {
+            long sq = squares[piece] == BitBoard.NONE ? DEAD : squares[piece];
+            words[piece / PER_WORD] |= sq << (piece % PER_WORD * BITS);
+        }
+        if (secondPlayerTurn)
+            words[0] |= Long.MIN_VALUE;
+        if (gameFinished)
+            words[1] |= Long.MIN_VALUE;
+        return new BoardSnapshot(words);
+    }
+
+    /**
+     * @param words The longs of a snapshot, in the order of word().
+     * @return The snapshot.
+     */
+    static BoardSnapshot ofWords(long[] words) {
+        return new BoardSnapshot(words);
+    }
+
+    /**
+     * @return A given long (from 0 to WORDS-1) of this snapshot.
+     */
+    long word(int index) {
+        return switch (index) {
+            case 0 -> w0;
+            case 1 -> w1;
+            case 2 -> w2;
+            case 3 -> w3;
+            default -> w4;
+        };
+    }
+
+    /**
+     * @param piece The index of a piece (as in PieceRegistry).
+     * @return The square of the piece, or BitBoard.NONE if it isn't on the board.
+     */
+    public int squareOf(int piece) {
+        int sq = (int) (word(piece / PER_WORD) >>> (piece % PER_WORD * BITS)) & DEAD;
+        return sq == DEAD ? BitBoard.NONE : sq;
+    }
+
+    public boolean isSecondPlayerTurn() {
+        return w0 < 0;
+    }
+
+    public boolean isGameFinished() {
+        return w1 < 0;
+    }
+
+    /**
+     * @return BitBoard.P2 if it's the turn of player 2, BitBoard.P1 otherwise.
+     */
+    public int sideToMove() {
+        return isSecondPlayerTurn() ? BitBoard.P2 : BitBoard.P1;
+    }
+
+    /**
+     * @return A new bitboard with the pieces of this snapshot.
+     */
+    public BitBoard toBitBoard() {
+        BitBoard board = new BitBoard();
+        for (int piece = 0; piece < PieceRegistry.PIECES; piece++) {
+            int sq = squareOf(piece);
+            if (sq == BitBoard.NONE)
+                continue;
+            if (piece == PieceRegistry.KING)
+                board.putKing(sq);
+            else
+                board.put(sq, piece < GameLogic.p1NumOfPieces ? BitBoard.P1 : BitBoard.P2);
+        }
+        return board;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BoardSnapshot s && s.w0 == w0 && s.w1 == w1 && s.w2 == w2 && s.w3 == w3 && s.w4 == w4;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Long.hashCode(w0);
+        hash = 31 * hash + Long.hashCode(w1);
+        hash = 31 * hash + Long.hashCode(w2);
+        hash = 31 * hash + Long.hashCode(w3);
+        return 31 * hash + Long.hashCode(w4);
+    }
+}
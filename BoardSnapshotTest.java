@@ -0,0 +1,52 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardSnapshotTest {
+    private static final File INPUT = new File("src/test/resources/inputs/input1.txt");
+
+    @Test
+    void testRestoreIntoAnotherGame() throws Exception {
+        List<Position> moves = GameLogicTest.parse(Files.readString(INPUT.toPath()));
+        GameLogic game = new GameLogic(StatsSink.NONE);
+        for (int i = 0; i < moves.size() - 3; i += 2)   // all but the last movement, which ends the game
+            assertTrue(game.move(moves.get(i), moves.get(i + 1)));
+        BoardSnapshot snapshot = game.snapshot();
+
+        GameLogic copy = new GameLogic(StatsSink.NONE);
+        copy.restore(snapshot);
+        assertEquals(snapshot, copy.snapshot());
+        assertEquals(game.getZobristKey(), copy.getZobristKey());
+        assertEquals(game.isSecondPlayerTurn(), copy.isSecondPlayerTurn());
+        assertEquals(game.copyBoard().getHash(), snapshot.toBitBoard().getHash());
+        for (int sq = 0; sq < BitBoard.SQUARES; sq++) {
+            Piece piece = game.getPieceAtPosition(Position.ofSquare(sq)), copied = copy.getPieceAtPosition(Position.ofSquare(sq));
+            assertEquals(piece == null ? null : ((ConcretePiece) piece).getId(), copied == null ? null : ((ConcretePiece) copied).getId());
+        }
+
+        // both games go on independently, and the snapshot doesn't change
+        assertTrue(copy.move(moves.get(moves.size() - 2), moves.getLast()));
+        assertTrue(copy.isGameFinished());
+        assertFalse(game.isGameFinished());
+        assertNotEquals(snapshot, copy.snapshot());
+        assertEquals(snapshot, game.snapshot());
+        copy.restore(snapshot);
+        assertFalse(copy.isGameFinished());
+        assertEquals(game.getZobristKey(), copy.getZobristKey());
+    }
+
+    @Test
+    void testStartPosition() {
+        GameLogic game = new GameLogic(StatsSink.NONE);
+        BoardSnapshot start = game.snapshot();
+        assertTrue(start.isSecondPlayerTurn());
+        assertEquals(BitBoard.square(5, 5), start.squareOf(PieceRegistry.KING));
+        for (int piece = 0; piece < PieceRegistry.PIECES; piece++)
+            assertNotEquals(BitBoard.NONE, start.squareOf(piece));
+        assertEquals(start.hashCode(), new GameLogic(StatsSink.NONE).snapshot().hashCode());
+    }
+}
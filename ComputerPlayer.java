@@ -0,0 +1,53 @@
+/**
+ * A computer opponent for either side of a game, to be used next to the game's PlayableLogic (e.g. after every human
+ * movement in the GUI). Searches the current position of the game with a SearchEngine.
+ */
+public class ComputerPlayer {
+    private static final int DEFAULT_TABLE_MEGABYTES = 64;
+    private final GameLogic gameLogic;
+    private final TranspositionTable table;
+    private final SearchEngine engine;
+
+    public ComputerPlayer(GameLogic gameLogic) {
+        this(gameLogic, new SimpleEvaluator(), DEFAULT_TABLE_MEGABYTES);
+    }
+
+    /**
+     * @param gameLogic      The game to play.
+     * @param evaluator      The evaluation function of the search.
+     * @param tableMegabytes Size of the transposition table of the search.
+     */
+    public ComputerPlayer(GameLogic gameLogic, Evaluator evaluator, int tableMegabytes) {
+        this.gameLogic = gameLogic;
+        table = new TranspositionTable(tableMegabytes);
+        engine = new SearchEngine(table, evaluator);
+    }
+
+    /**
+     * Searches for the best movement of the player whose turn it is, without changing the game.
+     *
+     * @param timeMillis Time budget of the search, in milliseconds.
+     * @return The result of the search (including its depth and nodes/sec), or null if the game is finished.
+     */
+    public SearchResult findBestMove(long timeMillis) {
+        if (gameLogic.isGameFinished())
+            return null;
+        table.newSearch();
+        int side = gameLogic.isSecondPlayerTurn() ? BitBoard.P2 : BitBoard.P1;
+        return engine.search(gameLogic.copyBoard(), side, timeMillis, SearchEngine.MAX_PLY - 1);
+    }
+
+    /**
+     * Searches for the best movement of the player whose turn it is and makes it in the game.
+     *
+     * @param timeMillis Time budget of the search, in milliseconds.
+     * @return The result of the search, or null if the game is finished or there are no legal movements.
+     */
+    public SearchResult play(long timeMillis) {
+        SearchResult result = findBestMove(timeMillis);
+        if (result == null || result.move() == 0)
+            return null;
+        gameLogic.move(result.from(), result.to());
+        return result;
+    }
+}
@@ -1,75 +1,54 @@
 import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * A view of a piece of a PieceRegistry, which holds its owner, number and statistics.
+ */
 public abstract class ConcretePiece implements Piece {
-    private final Player owner;
-    private final String type;
-    private final String id;
-    private ArrayList<Position> positionHistory;
-    private int totalDistance;
+    private final PieceRegistry registry;
+    private final int index;
 
-    protected ConcretePiece(Player owner, String type, String id) {
-        this.owner = owner;
-        this.type = type;
-        this.id = id;
-        positionHistory = new ArrayList<>();
-        totalDistance = 0;
+    protected ConcretePiece(PieceRegistry registry, int index) {
+        this.registry = registry;
+        this.index = index;
     }
 
     @Override
     public Player getOwner() {
-        return owner;
+        return registry.getOwner(index);
     }
 
-    @Override
-    public String getType() {
-        return type;
+    /**
+     * @return The index of this piece in its registry.
+     */
+    public int getIndex() {
+        return index;
     }
 
     public String getId() {
-        return id;
+        return registry.getId(index);
     }
 
-    public int getTotalDistance() {
-        return totalDistance;
+    public int getNumber() {
+        return registry.getNumber(index);
     }
 
-    /* Stores visited positions (if moved at least once)*/
-    public ArrayList<Position> getPositionHistory() {
-        return positionHistory;
-    }
-
-    public void addToTotalDistance(int distance) {
-        totalDistance += distance;
+    public int getTotalDistance() {
+        return registry.getDistance(index);
     }
 
     /**
-     * Registers a movement for this piece: Updates its positionHistory and totalDistance.
-     *
-     * @param a Position before movement.
-     * @param b Position after movement.
+     * @return A copy of the visited positions (if moved at least once).
      */
-    public void addMovement(Position a, Position b) {
-        if (positionHistory.isEmpty()) {
-            positionHistory.add(a);
-            positionHistory.add(b);
-        } else
-            positionHistory.add(b);
-        int distance = a.manhattanDistanceTo(b);
-        addToTotalDistance(distance);
-        if (GameLogic.CONSOLE_PRINT)
-            System.out.println(id + ": " + positionHistory + " . Total distance = " + totalDistance);
+    public List<Position> getPositionHistory() {
+        int length = registry.getHistoryLength(index);
+        List<Position> history = new ArrayList<>(length);
+        for (int i = 0; i < length; i++)
+            history.add(Position.ofSquare(registry.getHistorySquare(index, i)));
+        return history;
     }
 
-    /**
-     * Un-registers the last movement of this piece: Updates positionHistory and totalDistance.
-     */
-    public void undoLastMovement() {
-        if (getPositionHistory().size() <= 2) {
-            positionHistory = new ArrayList<>();
-            totalDistance = 0;
-        } else {
-            Position lastPos = positionHistory.removeLast();
-            this.addToTotalDistance(-(lastPos.manhattanDistanceTo(positionHistory.getLast())));
-        }
+    protected PieceRegistry getRegistry() {
+        return registry;
     }
 }
@@ -0,0 +1,36 @@
+import java.io.PrintStream;
+
+/**
+ * Logs the movements and kills of a game with the pieces' ids (their histories, distances and kill counts).
+ * Reads the pieces from the game when it's called, so it should be added to the game directly and not through an
+ * AsyncGameListener.
+ */
+public class ConsoleGameListener implements GameListener {
+    private final PlayableLogic game;
+    private final PrintStream out;
+
+    /**
+     * @param game The game this listener is added to (which is asked about the pieces on the squares of the events).
+     * @param out  Given stream, or null for System.out at the time of writing.
+     */
+    public ConsoleGameListener(PlayableLogic game, PrintStream out) {
+        this.game = game;
+        this.out = out;
+    }
+
+    @Override
+    public void onMove(int from, int to) {
+        if (game.getPieceAtPosition(Position.ofSquare(to)) instanceof ConcretePiece piece)
+            stream().println(piece.getId() + ": " + piece.getPositionHistory() + " . Total distance = " + piece.getTotalDistance());
+    }
+
+    @Override
+    public void onCapture(int killerSquare, int victimSquare) {
+        if (game.getPieceAtPosition(Position.ofSquare(killerSquare)) instanceof Pawn killer)
+            stream().println(killer.getId() + " total kills: " + killer.getKills());
+    }
+
+    private PrintStream stream() {
+        return out != null ? out : System.out;
+    }
+}
@@ -0,0 +1,82 @@
+import jdk.jfr.*;
+
+/**
+ * The JDK Flight Recorder events of the game engine (category "Vikings Chess"). They are created and committed only
+ * while a recording enables them (see EngineMetrics), so they cost nothing otherwise. Squares are numbered as in
+ * BitBoard, and are -1 for positions out of the board.
+ */
+public final class EngineEvents {
+    private EngineEvents() {
+    }
+
+    @Name("vikings.Move")
+    @Label("Move")
+    @Category("Vikings Chess")
+    @Description("A movement made by GameLogic.move()")
+    @StackTrace(false)
+    public static class Move extends Event {
+        @Label("From")
+        int from;
+        @Label("To")
+        int to;
+        @Label("Captures")
+        int captures;
+        @Label("Ply")
+        int ply;
+        @Label("Latency")
+        @Timespan(Timespan.NANOSECONDS)
+        long latency;
+    }
+
+    @Name("vikings.RejectedMove")
+    @Label("Rejected Move")
+    @Category("Vikings Chess")
+    @Description("A movement rejected by GameLogic.move()")
+    @StackTrace(false)
+    public static class RejectedMove extends Event {
+        @Label("From")
+        int from;
+        @Label("To")
+        int to;
+        @Label("Reason")
+        String reason;
+    }
+
+    @Name("vikings.Undo")
+    @Label("Undo")
+    @Category("Vikings Chess")
+    @Description("A movement undone by GameLogic.undoLastMove()")
+    @StackTrace(false)
+    public static class Undo extends Event {
+        @Label("From")
+        int from;
+        @Label("To")
+        int to;
+        @Label("Restored Pieces")
+        int restored;
+        @Label("Depth")
+        @Description("The number of movements undone in a row, including this one")
+        int depth;
+    }
+
+    @Name("vikings.GameEnd")
+    @Label("Game End")
+    @Category("Vikings Chess")
+    @StackTrace(false)
+    public static class GameEnd extends Event {
+        @Label("Plies")
+        int plies;
+        @Label("Winner Is Player 1")
+        boolean playerOneWon;
+    }
+
+    @Name("vikings.PrintStats")
+    @Label("Print Stats")
+    @Category("Vikings Chess")
+    @Description("Producing and writing the statistics of a finished game")
+    @StackTrace(false)
+    public static class PrintStats extends Event {
+        @Label("Characters")
+        int length;
+    }
+}
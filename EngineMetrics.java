@@ -0,0 +1,152 @@
+import jdk.jfr.EventType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the engine's hot paths, shared by all the games of the process, and the JDK Flight Recorder events that
+ * go along with them (see EngineEvents). The counters are striped (LongAdder), so games on many threads don't contend
+ * on them, and they are read only when a snapshot is pulled.
+ */
+public final class EngineMetrics {
+    private static final EventType MOVE = EventType.getEventType(EngineEvents.Move.class),
+            REJECTED_MOVE = EventType.getEventType(EngineEvents.RejectedMove.class),
+            UNDO = EventType.getEventType(EngineEvents.Undo.class),
+            GAME_END = EventType.getEventType(EngineEvents.GameEnd.class),
+            PRINT_STATS = EventType.getEventType(EngineEvents.PrintStats.class);
+    private static final MoveRejection[] REJECTIONS = MoveRejection.values();
+    private static final LongAdder moves = new LongAdder(), moveNanos = new LongAdder(), captures = new LongAdder(),
+            undos = new LongAdder(), games = new LongAdder(), gamePlies = new LongAdder(),
+            statsReports = new LongAdder(), statsNanos = new LongAdder();
+    private static final LongAdder[] rejected = new LongAdder[REJECTIONS.length];
+    private static final LongAccumulator maxMoveNanos = new LongAccumulator(Math::max, 0),
+            maxUndoDepth = new LongAccumulator(Math::max, 0), maxGamePlies = new LongAccumulator(Math::max, 0);
+
+    static {
+        for (int i = 0; i < rejected.length; i++)
+            rejected[i] = new LongAdder();
+    }
+
+    private EngineMetrics() {
+    }
+
+    /**
+     * Counts a movement made by GameLogic.move().
+     *
+     * @param from     The square from which the piece was moved.
+     * @param to       The square to which the piece was moved.
+     * @param kills    The number of pieces killed by the movement.
+     * @param ply      The number of the movement in its game (from 1).
+     * @param latency  The time move() took, in nanoseconds.
+     */
+    static void moveMade(int from, int to, int kills, int ply, long latency) {
+        moves.increment();
+        moveNanos.add(latency);
+        maxMoveNanos.accumulate(latency);
+        if (kills != 0)
+            captures.add(kills);
+        if (MOVE.isEnabled()) {
+            EngineEvents.Move event = new EngineEvents.Move();
+            event.from = from;
+            event.to = to;
+            event.captures = kills;
+            event.ply = ply;
+            event.latency = latency;
+            event.commit();
+        }
+    }
+
+    /**
+     * Counts a movement rejected by GameLogic.move().
+     *
+     * @param from   The square from which the piece was to be moved, or -1 if it's out of the board.
+     * @param to     The square to which the piece was to be moved, or -1 if it's out of the board.
+     * @param reason The reason for the rejection.
+     */
+    static void moveRejected(int from, int to, MoveRejection reason) {
+        rejected[reason.ordinal()].increment();
+        if (REJECTED_MOVE.isEnabled()) {
+            EngineEvents.RejectedMove event = new EngineEvents.RejectedMove();
+            event.from = from;
+            event.to = to;
+            event.reason = reason.name();
+            event.commit();
+        }
+    }
+
+    /**
+     * Counts a movement undone by GameLogic.undoLastMove().
+     *
+     * @param from     The square to which the piece was moved back.
+     * @param to       The square from which the piece was moved back.
+     * @param restored The number of pieces put back on the board.
+     * @param depth    The number of movements undone in a row (without movements in between), including this one.
+     */
+    static void moveUndone(int from, int to, int restored, int depth) {
+        undos.increment();
+        maxUndoDepth.accumulate(depth);
+        if (UNDO.isEnabled()) {
+            EngineEvents.Undo event = new EngineEvents.Undo();
+            event.from = from;
+            event.to = to;
+            event.restored = restored;
+            event.depth = depth;
+            event.commit();
+        }
+    }
+
+    /**
+     * Counts a finished game.
+     *
+     * @param plies        The number of movements made in the game.
+     * @param playerOneWon True if player 1 won the game, False if player 2 did.
+     */
+    static void gameEnded(int plies, boolean playerOneWon) {
+        games.increment();
+        gamePlies.add(plies);
+        maxGamePlies.accumulate(plies);
+        if (GAME_END.isEnabled()) {
+            EngineEvents.GameEnd event = new EngineEvents.GameEnd();
+            event.plies = plies;
+            event.playerOneWon = playerOneWon;
+            event.commit();
+        }
+    }
+
+    /**
+     * Produces and writes the statistics of a finished game, and counts the time it took.
+     *
+     * @param report The statistics of the game.
+     * @param sink   The sink to write them to.
+     */
+    static void printStats(StatsReport report, StatsSink sink) {
+        EngineEvents.PrintStats event = PRINT_STATS.isEnabled() ? new EngineEvents.PrintStats() : null;
+        if (event != null)
+            event.begin();
+        long start = System.nanoTime();
+        String text = report.render();
+        sink.write(text);
+        statsNanos.add(System.nanoTime() - start);
+        statsReports.increment();
+        if (event != null) {
+            event.length = text.length();
+            event.commit();
+        }
+    }
+
+    /**
+     * @return The current values of all the counters. Counts that are updated while the snapshot is taken may or may
+     * not be included in it.
+     */
+    public static MetricsSnapshot snapshot() {
+        Map<MoveRejection, Long> rejections = new EnumMap<>(MoveRejection.class);
+        for (MoveRejection reason : REJECTIONS)
+            rejections.put(reason, rejected[reason.ordinal()].sum());
+        return new MetricsSnapshot(moves.sum(), moveNanos.sum(), maxMoveNanos.get(), Collections.unmodifiableMap(rejections),
+                captures.sum(), undos.sum(), maxUndoDepth.get(), games.sum(), gamePlies.sum(), maxGamePlies.get(),
+                statsReports.sum(), statsNanos.sum());
+    }
+}
@@ -0,0 +1,98 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EngineMetricsTest {
+    private static final File INPUT = new File("src/test/resources/inputs/input1.txt");
+
+    @Test
+    void testRejectionReasons() {
+        GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+        MetricsSnapshot before = EngineMetrics.snapshot();
+        assertFalse(gameLogic.move(new Position(-1, 0), new Position(0, 0)));
+        assertFalse(gameLogic.move(new Position(2, 2), new Position(2, 3)));
+        assertFalse(gameLogic.move(new Position(0, 3), new Position(0, 4)));
+        assertFalse(gameLogic.move(new Position(3, 5), new Position(3, 4)));
+        assertFalse(gameLogic.move(new Position(0, 3), new Position(0, 0)));
+        assertFalse(gameLogic.move(new Position(0, 3), new Position(2, 4)));
+        MetricsSnapshot after = EngineMetrics.snapshot();
+        for (MoveRejection reason : MoveRejection.values())
+            assertEquals(1, after.rejectedMoves().get(reason) - before.rejectedMoves().get(reason), reason.name());
+        assertEquals(before.moves(), after.moves());
+    }
+
+    @Test
+    void testCountersOfAGame() throws Exception {
+        List<Position> moves = GameLogicTest.parse(Files.readString(INPUT.toPath()));
+        InMemoryStatsSink sink = new InMemoryStatsSink();
+        GameLogic gameLogic = new GameLogic(sink);
+        MetricsSnapshot before = EngineMetrics.snapshot();
+        assertTrue(gameLogic.move(moves.get(0), moves.get(1)));
+        assertTrue(gameLogic.move(moves.get(2), moves.get(3)));
+        gameLogic.undoLastMove();
+        gameLogic.undoLastMove();
+        for (int i = 0; i < moves.size() - 1; i += 2)
+            assertTrue(gameLogic.move(moves.get(i), moves.get(i + 1)));
+        MetricsSnapshot after = EngineMetrics.snapshot();
+
+        int plies = moves.size() / 2;
+        assertEquals(plies + 2, after.moves() - before.moves());
+        assertEquals(2, after.undos() - before.undos());
+        assertTrue(after.maxUndoDepth() >= 2);
+        assertEquals(1, after.games() - before.games());
+        assertEquals(plies, after.gamePlies() - before.gamePlies());
+        assertEquals(1, after.statsReports() - before.statsReports());
+        assertTrue(after.moveNanos() > before.moveNanos() && after.statsNanos() > before.statsNanos());
+        int kills = 0;
+        for (int sq = 0; sq < BitBoard.SQUARES; sq++) {
+            if (gameLogic.getPieceAtPosition(Position.ofSquare(sq)) instanceof Pawn pawn)
+                kills += pawn.getKills();
+        }
+        assertEquals(kills, after.captures() - before.captures());
+    }
+
+    @Test
+    void testFlightRecorderEvents() throws Exception {
+        List<Position> moves = GameLogicTest.parse(Files.readString(INPUT.toPath()));
+        Path file = Files.createTempFile("engine", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("vikings.Move", "vikings.RejectedMove", "vikings.Undo", "vikings.GameEnd", "vikings.PrintStats"))
+                recording.enable(name);
+            recording.start();
+            GameLogic gameLogic = new GameLogic(new InMemoryStatsSink());
+            assertFalse(gameLogic.move(new Position(0, 3), new Position(0, 0)));
+            assertTrue(gameLogic.move(moves.get(0), moves.get(1)));
+            gameLogic.undoLastMove();
+            for (int i = 0; i < moves.size() - 1; i += 2)
+                assertTrue(gameLogic.move(moves.get(i), moves.get(i + 1)));
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals(moves.size() / 2 + 1, count(events, "vikings.Move"));
+            assertEquals(1, count(events, "vikings.Undo"));
+            assertEquals(1, count(events, "vikings.GameEnd"));
+            assertEquals(1, count(events, "vikings.PrintStats"));
+            RecordedEvent rejected = events.stream().filter(e -> e.getEventType().getName().equals("vikings.RejectedMove"))
+                    .findFirst().orElseThrow();
+            assertEquals("CORNER", rejected.getString("reason"));
+            RecordedEvent end = events.stream().filter(e -> e.getEventType().getName().equals("vikings.GameEnd"))
+                    .findFirst().orElseThrow();
+            assertEquals(moves.size() / 2, end.getInt("plies"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static long count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).count();
+    }
+}
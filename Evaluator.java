@@ -0,0 +1,16 @@
+/**
+ * The Evaluator interface defines a static evaluation function of positions, which is used by the search at the leaves
+ * of its tree. Implementations must not change the board and must not allocate, since they are called for every leaf.
+ */
+public interface Evaluator {
+
+    /**
+     * Estimate how good a position is for the player whose turn it is.
+     *
+     * @param board      The board of the position.
+     * @param sideToMove The player whose turn it is (BitBoard.P1 or BitBoard.P2).
+     * @return A score from the point of view of sideToMove: positive if the position is good for it, negative if bad.
+     * Must be strictly between -SearchEngine.WIN and SearchEngine.WIN.
+     */
+    int evaluate(BitBoard board, int sideToMove);
+}
@@ -0,0 +1,29 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends every report to a file (in UTF-8), creating it if needed.
+ */
+public class FileStatsSink implements StatsSink {
+    private final Path file;
+
+    /**
+     * @param file Given file.
+     */
+    public FileStatsSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void write(String report) {
+        try {
+            Files.writeString(file, report, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write the stats to " + file, e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import java.awt.*;
 public class GUI_for_chess_like_games extends JFrame {
     private static final int BUTTON_SIZE = 55;
     private static final int FONT_SIZE = 20;
+    private static final Color PLAYER_ONE_COLOR = Color.BLUE, PLAYER_TWO_COLOR = new Color(165, 42, 42);
     private final JButton[][] buttons;
     private final int BOARD_SIZE;
     private JButton selectedButton = null; // To keep track of the currently selected button
@@ -17,6 +18,7 @@ public class GUI_for_chess_like_games extends JFrame {
     private final JLabel playerTowWinsLabel = new JLabel("♟ Player 2 Wins: 0");
     private final JLabel playerOneWinsLabel = new JLabel("♙ Player 1 Wins: 0");
     private final JPanel mainPanel = new JPanel(new BorderLayout());
+    private final int[] changedSquares; // buffer for the squares changed since the last update (when supported)
 
     /**
      * Initializes the graphical user interface for the Vikings Chess Game.
@@ -26,6 +28,7 @@ public class GUI_for_chess_like_games extends JFrame {
     public GUI_for_chess_like_games(PlayableLogic gameLogic, String title) {
         this.gameLogic = gameLogic;
         this.BOARD_SIZE = gameLogic.getBoardSize();
+        this.changedSquares = new int[BOARD_SIZE * BOARD_SIZE];
         setTitle(title);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         // Create a panel for the top section
@@ -83,6 +86,7 @@ public class GUI_for_chess_like_games extends JFrame {
     /**
      * Updates the game board UI to reflect the current state of the game.
      * It updates the turn label, the button text, and the text color based on the current game state.
+     * If the game logic reports the squares changed since the last update, only their cells are updated.
      *
      * If it's the attacker's turn, the turn label will display "Attacker's Turn", otherwise "Defender's Turn".
      * For each cell on the board, the button's appearance and text will be updated to match the corresponding
@@ -98,25 +102,33 @@ public class GUI_for_chess_like_games extends JFrame {
             turnLabel.setText("Player 1's Turn");
         }
 
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                Piece piece = gameLogic.getPieceAtPosition(new Position(row, col));
-                if (piece != null) {
-                    // Update the button's appearance based on the new piece position
-                    String type = piece.getType();
-                    buttons[row][col].setText(type);
-                    if ((piece.getOwner().isPlayerOne())) {
-                        buttons[row][col].setForeground(Color.BLUE);
-                    } else {
-                        buttons[row][col].setForeground(new Color(165, 42, 42));
-                    }
-                } else {
-                    buttons[row][col].setText("");
-                }
+        if (gameLogic instanceof GameLogic logic) {
+            int count = logic.takeChangedSquares(changedSquares);
+            for (int i = 0; i < count; i++)
+                updateCell(changedSquares[i] / BOARD_SIZE, changedSquares[i] % BOARD_SIZE);
+        } else {
+            for (int row = 0; row < BOARD_SIZE; row++) {
+                for (int col = 0; col < BOARD_SIZE; col++)
+                    updateCell(row, col);
             }
         }
         updateWinsLabels(gameLogic.getSecondPlayer().getWins(), gameLogic.getFirstPlayer().getWins());
     }
+
+    /**
+     * Updates the text and the text color of a single cell to match the piece on it.
+     */
+    private void updateCell(int row, int col) {
+        Piece piece = gameLogic.getPieceAtPosition(Position.of(row, col));
+        if (piece != null) {
+            // Update the button's appearance based on the new piece position
+            buttons[row][col].setText(piece.getType());
+            buttons[row][col].setForeground(piece.getOwner().isPlayerOne() ? PLAYER_ONE_COLOR : PLAYER_TWO_COLOR);
+        } else {
+            buttons[row][col].setText("");
+        }
+    }
+
     private void updateWinsLabels(int attackerWins, int defenderWins) {
         playerTowWinsLabel.setText("♟ Player 2 Wins: " + attackerWins);
         playerOneWinsLabel.setText("♙ Player 1 Wins: " + defenderWins);
@@ -129,6 +141,8 @@ public class GUI_for_chess_like_games extends JFrame {
      */
     public void start() {
         // Your game logic to handle user interactions and updates
+        if (gameLogic instanceof GameLogic logic)
+            logic.takeChangedSquares(changedSquares);   // every cell is set up below
         for (int col = 0; col < BOARD_SIZE; col++) {
             for (int row = 0; row < BOARD_SIZE; row++) {
                 buttons[row][col] = new JButton();
@@ -150,17 +164,8 @@ public class GUI_for_chess_like_games extends JFrame {
                 // Clear default border and content area
                 buttons[row][col].setBorderPainted(false);
 
-                if (gameLogic.getPieceAtPosition(new Position(row, col)) != null) {
-                    // Set the button's appearance based on the piece type
-                    Piece piece = gameLogic.getPieceAtPosition(new Position(row, col));
-                    String type = piece.getType();
-                    buttons[row][col].setText(type);
-                    if ((piece.getOwner().isPlayerOne())) {
-                        buttons[row][col].setForeground(Color.BLUE);
-                    } else {
-                        buttons[row][col].setForeground(new Color(165, 42, 42));
-                    }
-                }
+                // Set the button's appearance based on the piece type
+                updateCell(row, col);
 
                 mainPanel.add(buttons[row][col]);
                 buttons[row][col].putClientProperty("row", row); // Store the row index
@@ -0,0 +1,186 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only archive of many games in one file (written by GameArchiveWriter), which is memory-mapped, so games are
+ * read straight from the page cache without copying or allocating.
+ * Files larger than 2GB are mapped in segments of SEGMENT_BYTES. Movements (2 bytes at even offsets) and index entries
+ * (8 bytes at 8-aligned offsets) never cross a segment boundary.
+ */
+public class GameArchive implements AutoCloseable {
+    public static final int MAGIC = 0x564B4741, VERSION = 1, HEADER_BYTES = 24;  // MAGIC is "VKGA"
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_BYTES = 1L << SEGMENT_SHIFT, SEGMENT_MASK = SEGMENT_BYTES - 1;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int gameCount;
+    private final long indexOffset;
+
+    /**
+     * Opens and maps an archive file.
+     *
+     * @param file Given file.
+     * @throws IOException If the file can't be read or isn't an archive.
+     */
+    public GameArchive(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            segments = new MappedByteBuffer[(int) ((size + SEGMENT_BYTES - 1) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_BYTES, size - start));
+            }
+            if (size < HEADER_BYTES || segments[0].getInt(0) != MAGIC)
+                throw new IOException(file + " isn't a game archive");
+            if (segments[0].getInt(4) != VERSION)
+                throw new IOException(file + " has an unsupported version " + segments[0].getInt(4));
+            gameCount = Math.toIntExact(segments[0].getLong(8));
+            indexOffset = segments[0].getLong(16);
+            if (indexOffset < HEADER_BYTES || indexOffset + 8L * (gameCount + 1) > size)
+                throw new IOException(file + " has a corrupt index");
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * @return A new cursor, which is positioned before the first game.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    private long longAt(long offset) {
+        return segments[(int) (offset >>> SEGMENT_SHIFT)].getLong((int) (offset & SEGMENT_MASK));
+    }
+
+    private short shortAt(long offset) {
+        return segments[(int) (offset >>> SEGMENT_SHIFT)].getShort((int) (offset & SEGMENT_MASK));
+    }
+
+    /**
+     * Unmaps the file (when the buffers are collected) and closes it. Cursors mustn't be used afterward.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * A reusable view of one game of the archive at a time, reading its movements from the mapped file.
+     */
+    public class Cursor {
+        private int game = -1, plies;
+        private long start;
+
+        /**
+         * Moves to the next game.
+         *
+         * @return False if there are no more games.
+         */
+        public boolean next() {
+            if (game + 1 >= gameCount)
+                return false;
+            seek(game + 1);
+            return true;
+        }
+
+        /**
+         * Moves to a given game.
+         *
+         * @param index Number of the game (0 for the first).
+         */
+        public void seek(int index) {
+            if (index < 0 || index >= gameCount)
+                throw new IndexOutOfBoundsException("Game " + index + " of " + gameCount);
+            game = index;
+            start = longAt(indexOffset + 8L * index);
+            plies = (int) ((longAt(indexOffset + 8L * (index + 1)) - start) / 2);
+        }
+
+        /**
+         * @return The number of the current game.
+         */
+        public int game() {
+            return game;
+        }
+
+        /**
+         * @return The number of movements of the current game.
+         */
+        public int plies() {
+            return plies;
+        }
+
+        /**
+         * @param ply Number of the movement (0 for the first).
+         * @return The movement, encoded by MoveGenerator.
+         */
+        public int move(int ply) {
+            if (ply < 0 || ply >= plies)
+                throw new IndexOutOfBoundsException("Ply " + ply + " of " + plies);
+            short move = shortAt(start + 2L * ply);
+            return MoveGenerator.encode((move >>> 8) & 0xFF, move & 0xFF);
+        }
+
+        /**
+         * Plays the movements of the current game in a given game logic (from its current position), until one of them
+         * is rejected.
+         *
+         * @param gameLogic Given game logic.
+         * @return The number of movements played.
+         */
+        public int replay(GameLogic gameLogic) {
+            for (int ply = 0; ply < plies; ply++) {
+                int move = move(ply);
+                if (!gameLogic.move(Position.ofSquare(MoveGenerator.from(move)), Position.ofSquare(MoveGenerator.to(move))))
+                    return ply;
+            }
+            return plies;
+        }
+    }
+
+    /**
+     * Replays every game of an archive (without printing their stats), and prints the results along with games/sec.
+     *
+     * @param args The archive file.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java GameArchive archive");
+            System.exit(1);
+        }
+        long start = System.nanoTime(), plies = 0;
+        int p1Wins = 0, p2Wins = 0, unfinished = 0, invalid = 0;
+        try (GameArchive archive = new GameArchive(Path.of(args[0]))) {
+            GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+            Cursor cursor = archive.cursor();
+            while (cursor.next()) {
+                gameLogic.reset();
+                int played = cursor.replay(gameLogic);
+                plies += played;
+                if (played < cursor.plies())
+                    invalid++;
+                else if (!gameLogic.isGameFinished())
+                    unfinished++;
+                else if (gameLogic.isSecondPlayerTurn())    // the turn has passed to the loser
+                    p1Wins++;
+                else
+                    p2Wins++;
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("games: %d%nplayer 1 wins: %d%nplayer 2 wins: %d%nunfinished: %d%ninvalid: %d%n"
+                            + "plies: %d%nseconds: %.3f%ngames/sec: %.1f%n", archive.getGameCount(), p1Wins, p2Wins,
+                    unfinished, invalid, plies, seconds, archive.getGameCount() / Math.max(seconds, 1e-9));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Converts recorded games from the text format of resources/inputs (a list of "(x, y)" pairs) into a game archive.
+ * The files are streamed through MoveListParser, and every game of a file (there may be several) becomes a game of
+ * the archive.
+ * Usage: java GameArchiveConverter archive input... (files, or directories which are walked recursively)
+ */
+public class GameArchiveConverter {
+
+    /**
+     * Appends the games of the given text files to an archive.
+     *
+     * @param writer The writer of the archive.
+     * @param input  A text file, or a directory whose files (recursively) are converted in the order of their paths.
+     * @return The number of games converted.
+     * @throws IOException If a file can't be read, or has a problem (reported with its byte offset).
+     */
+    public static int convert(GameArchiveWriter writer, Path input) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(input)) {
+            files = walk.filter(Files::isRegularFile).sorted().toList();
+        }
+        int games = writer.getGameCount();
+        for (Path file : files) {
+            try (FileChannel channel = FileChannel.open(file)) {
+                MoveListParser.parse(channel, new FileConversion(file, writer));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        return writer.getGameCount() - games;
+    }
+
+    /**
+     * Collects the movements of every game of a file (an unpaired last position is ignored) and adds the game to the
+     * archive when it ends.
+     */
+    private static class FileConversion implements MoveListParser.Handler {
+        private final Path file;
+        private final GameArchiveWriter writer;
+        private int[] moves = new int[256];
+        private int plies, start = BitBoard.NONE;
+
+        FileConversion(Path file, GameArchiveWriter writer) {
+            this.file = file;
+            this.writer = writer;
+        }
+
+        @Override
+        public void onGameStart(long offset) {
+            plies = 0;
+            start = BitBoard.NONE;
+        }
+
+        @Override
+        public void onPosition(int x, int y, long offset) {
+            if (x >= BitBoard.SIZE || y >= BitBoard.SIZE)
+                onError("not a position on the board: (" + x + ", " + y + ")", offset);
+            int sq = BitBoard.square(x, y);
+            if (start == BitBoard.NONE) {
+                start = sq;
+                return;
+            }
+            if (plies == moves.length)
+                moves = Arrays.copyOf(moves, plies * 2);
+            moves[plies++] = MoveGenerator.encode(start, sq);
+            start = BitBoard.NONE;
+        }
+
+        @Override
+        public void onGameEnd(long offset) {
+            try {
+                writer.addGame(moves, plies);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void onError(String message, long offset) {
+            throw new UncheckedIOException(new IOException(file + ": " + message + " at byte " + offset));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java GameArchiveConverter archive input...");
+            System.exit(1);
+        }
+        try (GameArchiveWriter writer = new GameArchiveWriter(Path.of(args[0]))) {
+            for (int i = 1; i < args.length; i++)
+                convert(writer, Path.of(args[i]));
+            System.out.println(writer.getGameCount() + " games written to " + args[0]);
+        }
+    }
+}
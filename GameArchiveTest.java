@@ -0,0 +1,121 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArchiveTest {
+    private static final int RANDOM_GAMES = 200;
+
+    @Test
+    void testRandomGamesRoundTrip() throws Exception {
+        Path file = Files.createTempFile("games", ".vkga");
+        try {
+            List<int[]> games = new ArrayList<>();
+            Random random = new Random(7);
+            int[] buffer = new int[MoveGenerator.MAX_MOVES];
+            try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+                for (int g = 0; g < RANDOM_GAMES; g++) {
+                    GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+                    int[] moves = new int[random.nextInt(300)];
+                    int plies = 0;
+                    while (plies < moves.length && !gameLogic.isGameFinished()) {
+                        int move = buffer[random.nextInt(gameLogic.generateLegalMoves(buffer))];
+                        assertTrue(gameLogic.move(Position.ofSquare(MoveGenerator.from(move)),
+                                Position.ofSquare(MoveGenerator.to(move))));
+                        moves[plies++] = move;
+                    }
+                    writer.addGame(moves, plies);
+                    games.add(Arrays.copyOf(moves, plies));
+                }
+            }
+            try (GameArchive archive = new GameArchive(file)) {
+                assertEquals(RANDOM_GAMES, archive.getGameCount());
+                GameArchive.Cursor cursor = archive.cursor();
+                for (int[] moves : games) {
+                    assertTrue(cursor.next());
+                    assertEquals(moves.length, cursor.plies());
+                    for (int ply = 0; ply < moves.length; ply++)
+                        assertEquals(moves[ply], cursor.move(ply));
+                    GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+                    assertEquals(moves.length, cursor.replay(gameLogic));
+                }
+                assertFalse(cursor.next());
+                cursor.seek(RANDOM_GAMES / 2);
+                assertArrayEquals(games.get(RANDOM_GAMES / 2), IntStream.range(0, cursor.plies()).map(cursor::move).toArray());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testConvertsConcatenatedGames() throws Exception {
+        String game = Files.readString(Path.of("src/test/resources/inputs/input1.txt")).strip();
+        Path input = Files.createTempFile("games", ".txt"), file = Files.createTempFile("games", ".vkga");
+        try {
+            Files.writeString(input, game + "\n" + game + "\n[(3, 0), (3, 1)]");
+            try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+                assertEquals(3, GameArchiveConverter.convert(writer, input));
+            }
+            try (GameArchive archive = new GameArchive(file)) {
+                assertEquals(3, archive.getGameCount());
+                GameArchive.Cursor cursor = archive.cursor();
+                assertTrue(cursor.next());
+                assertEquals(15, cursor.plies());
+                assertTrue(cursor.next());
+                assertEquals(15, cursor.plies());
+                assertTrue(cursor.next());
+                assertEquals(MoveGenerator.encode(BitBoard.square(3, 0), BitBoard.square(3, 1)), cursor.move(0));
+            }
+
+            Files.writeString(input, "[(3, 0), (3, 11)]");
+            try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+                IOException e = assertThrows(IOException.class, () -> GameArchiveConverter.convert(writer, input));
+                assertTrue(e.getMessage().endsWith("at byte 9"), e.getMessage());
+            }
+        } finally {
+            Files.delete(input);
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testConvertedTextGameHasSameStats() throws Exception {
+        Path file = Files.createTempFile("games", ".vkga");
+        try {
+            try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+                assertEquals(1, GameArchiveConverter.convert(writer, Path.of("src/test/resources/inputs")));
+            }
+            InMemoryStatsSink sink = new InMemoryStatsSink();
+            try (GameArchive archive = new GameArchive(file)) {
+                GameArchive.Cursor cursor = archive.cursor();
+                assertTrue(cursor.next());
+                cursor.replay(new GameLogic(sink));
+            }
+            String expected = Files.readString(new File("src/test/resources/outputs/output1.txt").toPath());
+            assertEquals(expected.replace("\r", ""), sink.getLastReport().replace("\r", ""));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws Exception {
+        Path file = Files.createTempFile("games", ".txt");
+        try {
+            Files.writeString(file, "(5, 3) (5, 1)");
+            assertThrows(IOException.class, () -> new GameArchive(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
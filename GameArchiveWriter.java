@@ -0,0 +1,118 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes games into an archive file of the format that GameArchive reads:
+ * A header (GameArchive.MAGIC, version, number of games, offset of the index), then the movements of all the games one
+ * after the other (2 bytes per movement: the starting square and the end square), then the index - the offset of every
+ * game followed by the offset of the end of the last game (8 bytes each, 8-byte aligned).
+ */
+public class GameArchiveWriter implements AutoCloseable {
+    private static final int BUFFER_BYTES = 1 << 16;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private long[] offsets = new long[1024];
+    private int games;
+    private long position = GameArchive.HEADER_BYTES;
+
+    /**
+     * Creates (or overwrites) an archive file.
+     *
+     * @param file Given file.
+     */
+    public GameArchiveWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        channel.position(GameArchive.HEADER_BYTES);
+    }
+
+    /**
+     * Appends a game to the archive.
+     *
+     * @param moves The movements of the game in order, encoded by MoveGenerator.
+     * @param plies The number of movements.
+     */
+    public void addGame(int[] moves, int plies) throws IOException {
+        startGame();
+        for (int i = 0; i < plies; i++)
+            putMove(MoveGenerator.from(moves[i]), MoveGenerator.to(moves[i]));
+    }
+
+    /**
+     * Appends a game to the archive.
+     *
+     * @param positions The positions of the game's movements, every 2 of them being the start and the end of a
+     *                  movement (an unpaired last position is ignored).
+     */
+    public void addGame(Position[] positions) throws IOException {
+        startGame();
+        for (int i = 0; i + 1 < positions.length; i += 2)
+            putMove(squareOf(positions[i]), squareOf(positions[i + 1]));
+    }
+
+    public int getGameCount() {
+        return games;
+    }
+
+    private void startGame() {
+        if (games + 1 == offsets.length)
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        offsets[games++] = position;
+    }
+
+    private void putMove(int from, int to) throws IOException {
+        if (from < 0 || from >= BitBoard.SQUARES || to < 0 || to >= BitBoard.SQUARES)
+            throw new IllegalArgumentException("Not a movement on the board: " + from + " -> " + to);
+        if (buffer.remaining() < 2)
+            flush();
+        buffer.put((byte) from).put((byte) to);
+        position += 2;
+    }
+
+    private static int squareOf(Position pos) {
+        if (pos.getX() < 0 || pos.getY() < 0 || pos.getX() >= BitBoard.SIZE || pos.getY() >= BitBoard.SIZE)
+            throw new IllegalArgumentException("Not a position on the board: " + pos);
+        return BitBoard.square(pos.getX(), pos.getY());
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Writes the index and the header, and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            offsets[games] = position;
+            while (position % 8 != 0) {  // aligns the index
+                if (!buffer.hasRemaining())
+                    flush();
+                buffer.put((byte) 0);
+                position++;
+            }
+            long indexOffset = position;
+            for (int i = 0; i <= games; i++) {
+                if (buffer.remaining() < 8)
+                    flush();
+                buffer.putLong(offsets[i]);
+            }
+            flush();
+            buffer.putInt(GameArchive.MAGIC).putInt(GameArchive.VERSION).putLong(games).putLong(indexOffset);
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer, buffer.position());
+            buffer.clear();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,311 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A game along with its history as a tree of lines, which may be navigated back and forth: goToPly() reaches any ply
+ * of a line, redo() makes the next movement of the line again, and a movement that differs from the next movement of
+ * the line starts a new line (a branch) from there.
+ * Every line keeps only its own movements (those after the ply it branched from), encoded by MoveGenerator, and a
+ * BoardSnapshot of every CHECKPOINT_INTERVAL-th ply it reaches. A ply is reached by restoring the nearest checkpoint
+ * before it and making the movements from there, so it takes at most CHECKPOINT_INTERVAL movements, however long the
+ * game is. A step of up to CHECKPOINT_INTERVAL plies forwards (or backwards, through undoLastMove() of the game) is
+ * made without a checkpoint.
+ * The game should be played only through this history. The games that end while plies are revisited are neither won
+ * nor reported again. A restored checkpoint (other than ply 0) leaves the statistics of the pieces counting from the
+ * checkpoint only, so before a new movement is made from there, the current line is made again from ply 0 (once), and
+ * the statistics of the game are always exact when a game ends.
+ */
+public class GameHistory implements PlayableLogic {
+    public static final int CHECKPOINT_INTERVAL = 32;
+    private final GameLogic game;
+    private final List<Line> lines = new ArrayList<>();
+    private int line, ply;  // the current line and ply
+    private boolean partialStats;   // true if the statistics of the game count from a restored checkpoint only
+
+    /**
+     * A line of the tree: the line it branched from, the ply it branched at, its movements from there and its
+     * checkpoints (of the plies that are multiples of CHECKPOINT_INTERVAL, starting with firstCheckpoint).
+     */
+    private static final class Line {
+        final int parent, forkPly, firstCheckpoint;
+        int[] moves = new int[CHECKPOINT_INTERVAL];
+        int length;
+        BoardSnapshot[] checkpoints = new BoardSnapshot[4];
+
+        Line(int parent, int forkPly, int firstCheckpoint) {
+            this.parent = parent;
+            this.forkPly = forkPly;
+            this.firstCheckpoint = firstCheckpoint;
+        }
+
+        int end() {
+            return forkPly + length;
+        }
+    }
+
+    /**
+     * @param game Given game, whose current board becomes ply 0 of the history.
+     */
+    public GameHistory(GameLogic game) {
+        this.game = game;
+        startOver();
+    }
+
+    private void startOver() {
+        lines.clear();
+        Line root = new Line(-1, 0, 0);
+        root.checkpoints[0] = game.snapshot();
+        lines.add(root);
+        line = ply = 0;
+        partialStats = false;
+    }
+
+    /**
+     * Makes a movement in the game. If it's the next movement of the current line, or of any other line that got to the
+     * current ply the same way, that line is followed. Otherwise, the movement is added to the end of the current line,
+     * or starts a new line from the current ply.
+     */
+    @Override
+    public boolean move(Position a, Position b) {
+        if (partialStats)
+            replayFromStart();
+        if (!game.move(a, b))
+            return false;
+        int move = MoveGenerator.encode(BitBoard.square(a.getX(), a.getY()), BitBoard.square(b.getX(), b.getY()));
+        int next = lineWith(move);
+        if (next != -1)
+            line = next;
+        else if (ply == lines.get(line).end())
+            append(line, move);
+        else {
+            lines.add(new Line(line, ply, ply / CHECKPOINT_INTERVAL + 1));
+            line = lines.size() - 1;
+            append(line, move);
+        }
+        ply++;
+        return true;
+    }
+
+    /**
+     * @return A line whose movements up to the current ply are those of the current line, and whose next movement is a
+     * given one (preferably the current line), or -1 if there's none.
+     */
+    private int lineWith(int move) {
+        if (ply < lines.get(line).end() && moveAt(line, ply) == move)
+            return line;
+        int before = ply == 0 ? -1 : owner(line, ply - 1);
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).end() > ply && (ply == 0 || owner(i, ply - 1) == before) && moveAt(i, ply) == move)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return The line that keeps the movement of a given ply (from 0) of a given line: the line itself or the line it
+     * branched from (recursively). Lines with the same owner of a ply have the same movements up to that ply.
+     */
+    private int owner(int line, int ply) {
+        while (ply < lines.get(line).forkPly)
+            line = lines.get(line).parent;
+        return line;
+    }
+
+    /**
+     * Adds the movement that was just made at the end of a given line, along with a checkpoint if it's due.
+     */
+    private void append(int line, int move) {
+        Line l = lines.get(line);
+        if (l.length == l.moves.length)
+            l.moves = Arrays.copyOf(l.moves, l.length * 2);
+        l.moves[l.length++] = move;
+        if (l.end() % CHECKPOINT_INTERVAL == 0) {
+            int index = l.end() / CHECKPOINT_INTERVAL - l.firstCheckpoint;
+            if (index == l.checkpoints.length)
+                l.checkpoints = Arrays.copyOf(l.checkpoints, index * 2);
+            l.checkpoints[index] = game.snapshot();
+        }
+    }
+
+    /**
+     * @return The movement made at a given ply (from 0) of a given line, encoded by MoveGenerator.
+     */
+    private int moveAt(int line, int ply) {
+        Line l = lines.get(owner(line, ply));
+        return l.moves[ply - l.forkPly];
+    }
+
+    /**
+     * @return The checkpoint of a given ply (a multiple of CHECKPOINT_INTERVAL) of a given line.
+     */
+    private BoardSnapshot checkpointAt(int line, int ply) {
+        Line l = lines.get(line);
+        while (ply < l.firstCheckpoint * CHECKPOINT_INTERVAL)
+            l = lines.get(l.parent);
+        return l.checkpoints[ply / CHECKPOINT_INTERVAL - l.firstCheckpoint];
+    }
+
+    /**
+     * Goes to a given ply of the current line.
+     *
+     * @param ply Given ply, from 0 (the start of the history) to getLength().
+     */
+    public void goToPly(int ply) {
+        goTo(line, ply);
+    }
+
+    /**
+     * Goes to a given ply of a given line, which becomes the current line.
+     *
+     * @param line Given line, from 0 (the line the history started with) to getLineCount()-1.
+     * @param ply  Given ply, from 0 to getLength(line).
+     */
+    public void goTo(int line, int ply) {
+        if (line < 0 || line >= lines.size())
+            throw new IndexOutOfBoundsException("No line " + line + " of " + lines.size());
+        if (ply < 0 || ply > lines.get(line).end())
+            throw new IndexOutOfBoundsException("No ply " + ply + " in a line of " + lines.get(line).end());
+        boolean sameLine = line == this.line;
+        this.line = line;
+        if (sameLine && ply == this.ply)
+            return;
+        game.setRevisiting(true);
+        try {
+            if (sameLine && ply > this.ply && ply - this.ply <= CHECKPOINT_INTERVAL)
+                replay(this.ply, ply);
+            else if (sameLine && ply < this.ply && this.ply - ply <= Math.min(game.plyCount(), CHECKPOINT_INTERVAL)
+                    && !game.isGameFinished()) {
+                for (int i = this.ply; i > ply; i--)
+                    game.undoLastMove();
+            } else {
+                int checkpoint = ply / CHECKPOINT_INTERVAL * CHECKPOINT_INTERVAL;
+                game.restore(checkpointAt(line, checkpoint));
+                replay(checkpoint, ply);
+                partialStats = checkpoint > 0;
+            }
+        } finally {
+            game.setRevisiting(false);
+        }
+        this.ply = ply;
+    }
+
+    /**
+     * Makes the movements of the current line from a given ply to another.
+     */
+    private void replay(int from, int to) {
+        for (int p = from; p < to; p++) {
+            int move = moveAt(line, p);
+            if (!game.move(Position.ofSquare(MoveGenerator.from(move)), Position.ofSquare(MoveGenerator.to(move))))
+                throw new IllegalStateException("The game was changed outside of its history");
+        }
+    }
+
+    /**
+     * Makes the movements of the current line again from ply 0 to the current ply, so the statistics of the game
+     * count all of them.
+     */
+    private void replayFromStart() {
+        game.setRevisiting(true);
+        try {
+            game.restore(lines.get(0).checkpoints[0]);
+            replay(0, ply);
+        } finally {
+            game.setRevisiting(false);
+        }
+        partialStats = false;
+    }
+
+    /**
+     * Makes the next movement of the current line again, if there is one.
+     */
+    public void redo() {
+        if (ply < lines.get(line).end())
+            goTo(line, ply + 1);
+    }
+
+    /**
+     * Goes back a single ply (keeping the movement for redo()), even if the game is finished.
+     */
+    @Override
+    public void undoLastMove() {
+        if (ply > 0)
+            goTo(line, ply - 1);
+    }
+
+    /**
+     * Starts a new game, and a new history with it.
+     */
+    @Override
+    public void reset() {
+        game.reset();
+        startOver();
+    }
+
+    public int getPly() {
+        return ply;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getLineCount() {
+        return lines.size();
+    }
+
+    /**
+     * @return The number of plies of the current line.
+     */
+    public int getLength() {
+        return getLength(line);
+    }
+
+    /**
+     * @return The number of plies of a given line (including those of the lines it branched from).
+     */
+    public int getLength(int line) {
+        return lines.get(line).end();
+    }
+
+    /**
+     * @return The ply at which a given line branched from its parent line (0 for the first line).
+     */
+    public int getForkPly(int line) {
+        return lines.get(line).forkPly;
+    }
+
+    public GameLogic getGame() {
+        return game;
+    }
+
+    @Override
+    public Piece getPieceAtPosition(Position position) {
+        return game.getPieceAtPosition(position);
+    }
+
+    @Override
+    public Player getFirstPlayer() {
+        return game.getFirstPlayer();
+    }
+
+    @Override
+    public Player getSecondPlayer() {
+        return game.getSecondPlayer();
+    }
+
+    @Override
+    public boolean isGameFinished() {
+        return game.isGameFinished();
+    }
+
+    @Override
+    public boolean isSecondPlayerTurn() {
+        return game.isSecondPlayerTurn();
+    }
+
+    @Override
+    public int getBoardSize() {
+        return game.getBoardSize();
+    }
+}
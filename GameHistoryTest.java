@@ -0,0 +1,173 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameHistoryTest {
+    private static final File INPUT = new File("src/test/resources/inputs/input1.txt");
+
+    /**
+     * Makes a random legal movement through the history.
+     *
+     * @return The movement, or 0 if there's none.
+     */
+    private static int playRandom(GameHistory history, SplittableRandom random) {
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int n = history.getGame().generateLegalMoves(buffer);
+        if (n == 0)
+            return 0;
+        int move = buffer[random.nextInt(n)];
+        assertTrue(history.move(Position.ofSquare(MoveGenerator.from(move)), Position.ofSquare(MoveGenerator.to(move))));
+        return move;
+    }
+
+    @Test
+    void testGoToAnyPly() {
+        GameHistory history = new GameHistory(new GameLogic(StatsSink.NONE));
+        SplittableRandom random = new SplittableRandom(1);
+        long[] keys = new long[301];
+        keys[0] = history.getGame().getZobristKey();
+        int plies = 0;
+        while (plies < 300 && playRandom(history, random) != 0)
+            keys[++plies] = history.getGame().getZobristKey();
+        assertTrue(plies > 3 * GameHistory.CHECKPOINT_INTERVAL);
+        assertEquals(plies, history.getLength());
+
+        for (int i = 0; i < 200; i++) {
+            int ply = random.nextInt(plies + 1);
+            history.goToPly(ply);
+            assertEquals(ply, history.getPly());
+            assertEquals(keys[ply], history.getGame().getZobristKey());
+            assertEquals(ply % 2 == 0, history.isSecondPlayerTurn());
+        }
+        history.goToPly(plies);
+        for (int ply = plies; ply > 0; ply--) {
+            history.undoLastMove();
+            assertEquals(keys[ply - 1], history.getGame().getZobristKey());
+        }
+        for (int ply = 0; ply < plies; ply++) {
+            history.redo();
+            assertEquals(keys[ply + 1], history.getGame().getZobristKey());
+        }
+        history.redo(); // nothing to redo
+        assertEquals(plies, history.getPly());
+        assertEquals(1, history.getLineCount());
+    }
+
+    @Test
+    void testBranches() {
+        GameHistory history = new GameHistory(new GameLogic(StatsSink.NONE));
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 100; i++)
+            assertNotEquals(0, playRandom(history, random));
+        long end = history.getGame().getZobristKey();
+        history.goToPly(40);
+        long fork = history.getGame().getZobristKey();
+        history.redo();
+        long mainNext = history.getGame().getZobristKey();
+        int last = history.getGame().ply(history.getGame().plyCount() - 1);
+        int mainMove = MoveGenerator.encode(MoveJournal.from(last), MoveJournal.to(last));
+        history.undoLastMove();
+        history.goToPly(40);
+
+        int move;
+        do {    // a movement other than the one of the line
+            history.goToPly(40);
+            move = playRandom(history, random);
+        } while (history.getGame().getZobristKey() == mainNext);
+        assertEquals(1, history.getLine());
+        assertEquals(2, history.getLineCount());
+        assertEquals(40, history.getForkPly(1));
+        for (int i = 0; i < 60; i++)
+            assertNotEquals(0, playRandom(history, random));
+        long branchEnd = history.getGame().getZobristKey();
+        assertEquals(101, history.getLength());
+
+        history.goTo(0, 100);
+        assertEquals(end, history.getGame().getZobristKey());
+        history.goTo(1, 40);
+        assertEquals(fork, history.getGame().getZobristKey());
+        history.goTo(1, 101);
+        assertEquals(branchEnd, history.getGame().getZobristKey());
+
+        // the same movement from the same ply follows the existing lines
+        history.goTo(0, 40);
+        assertTrue(history.move(Position.ofSquare(MoveGenerator.from(move)), Position.ofSquare(MoveGenerator.to(move))));
+        assertEquals(1, history.getLine());
+        history.goTo(1, 40);
+        history.goToPly(0);
+        history.goTo(0, 40);
+        history.redo();
+        assertEquals(mainNext, history.getGame().getZobristKey());
+        assertEquals(2, history.getLineCount());
+
+        // the movement of a line that got to the same ply the same way is followed too
+        history.goTo(1, 40);
+        history.undoLastMove();
+        history.redo();
+        history.goTo(1, 40);
+        Position from = Position.ofSquare(MoveGenerator.from(mainMove)), to = Position.ofSquare(MoveGenerator.to(mainMove));
+        assertTrue(history.move(from, to));
+        assertEquals(0, history.getLine());
+        assertEquals(mainNext, history.getGame().getZobristKey());
+        assertEquals(2, history.getLineCount());
+        assertThrows(IndexOutOfBoundsException.class, () -> history.goTo(0, 101));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.goTo(2, 0));
+    }
+
+    @Test
+    void testStatsAreExactAfterRestoredCheckpoint() {
+        InMemoryStatsSink sink = new InMemoryStatsSink();
+        GameHistory history = null;
+        for (long seed = 1; history == null || history.getLength() <= 2 * GameHistory.CHECKPOINT_INTERVAL; seed++) {
+            sink.clear();
+            history = new GameHistory(new GameLogic(sink));
+            SplittableRandom random = new SplittableRandom(seed);
+            while (!history.isGameFinished() && history.getLength() < 1000)
+                playRandom(history, random);
+            if (!history.isGameFinished())
+                history = null;
+        }
+        assertEquals(1, sink.getReports().size());
+        int end = history.getLength();
+        int last = history.getGame().ply(history.getGame().plyCount() - 1);
+
+        history.goToPly(end - 1);   // through a checkpoint, since the game is finished
+        assertTrue(history.move(Position.ofSquare(MoveJournal.from(last)), Position.ofSquare(MoveJournal.to(last))));
+        assertTrue(history.isGameFinished());
+        assertEquals(1, history.getLineCount());
+        assertEquals(2, sink.getReports().size());
+        assertEquals(sink.getReports().get(0), sink.getReports().get(1));
+    }
+
+    @Test
+    void testRevisitedGameEndIsNotCountedAgain() throws Exception {
+        List<Position> moves = GameLogicTest.parse(Files.readString(INPUT.toPath()));
+        InMemoryStatsSink sink = new InMemoryStatsSink();
+        GameHistory history = new GameHistory(new GameLogic(sink));
+        for (int i = 0; i + 1 < moves.size(); i += 2)
+            assertTrue(history.move(moves.get(i), moves.get(i + 1)));
+        assertTrue(history.isGameFinished());
+        int wins = history.getFirstPlayer().getWins() + history.getSecondPlayer().getWins();
+        assertEquals(1, wins);
+        assertEquals(1, sink.getReports().size());
+
+        history.undoLastMove();
+        assertFalse(history.isGameFinished());
+        history.redo();
+        assertTrue(history.isGameFinished());
+        history.goToPly(0);
+        history.goToPly(history.getLength());
+        assertTrue(history.isGameFinished());
+        assertEquals(wins, history.getFirstPlayer().getWins() + history.getSecondPlayer().getWins());
+        assertEquals(1, sink.getReports().size());
+
+        history.reset();
+        assertEquals(0, history.getLength());
+        assertFalse(history.isGameFinished());
+    }
+}
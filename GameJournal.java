@@ -0,0 +1,298 @@
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A crash-safe, append-only journal of a game: every accepted movement, undo and reset of the game is appended to a
+ * file as a fixed-size record, so that after a crash the game can be resumed by replaying the file (see open()).
+ * The game's thread only copies a record into a memory buffer. A writer thread of the journal writes the buffered
+ * records through a FileChannel and forces them to the disk, once per commit interval at most, so a single fsync commits
+ * all the records of an interval ("group commit"). A crash may lose the records of the last interval, but never
+ * corrupts the ones before it.
+ * The file is a header (MAGIC and VERSION, 4 bytes each) followed by records of RECORD_BYTES bytes: the type, the
+ * starting square, the end square and a check byte. A restore of a snapshot (see GameLogic.restore) is followed by the
+ * longs of the snapshot and a check int, RESTORE_BYTES in all. Replaying stops at the first record that is incomplete
+ * or doesn't match its check (the tail of a write that was cut by a crash), which is cut off before new records are
+ * appended. A complete record that the game rejects means the file doesn't belong to the game, so it isn't replayed
+ * (or changed) at all.
+ */
+public class GameJournal implements GameListener, AutoCloseable {
+    public static final int MAGIC = 0x564B4A4C, VERSION = 1, HEADER_BYTES = 8, RECORD_BYTES = 4,
+            RESTORE_BYTES = RECORD_BYTES + BoardSnapshot.WORDS * Long.BYTES + Integer.BYTES;
+    private static final byte MOVE = 1, UNDO = 2, RESET = 3, RESTORE = 4;
+    private static final int INITIAL_BUFFER_BYTES = 1 << 12;
+    private final FileChannel channel;
+    private final long commitNanos;
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);  // records of the game's thread, by lock
+    private ByteBuffer writing = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);  // records being written by the writer
+    private long appended, committed;   // numbers of records appended and forced to the disk
+    private boolean closed;
+    private IOException failure;
+    private final Thread writer;
+
+    private GameJournal(FileChannel channel, long commitMillis, long records) {
+        this.channel = channel;
+        commitNanos = commitMillis * 1_000_000L;
+        appended = committed = records;
+        writer = Thread.ofPlatform().daemon().name("game-journal").start(this::writeLoop);
+    }
+
+    /**
+     * Opens a journal file for a game: if the file exists, the game is reset and the journal is replayed into it (the
+     * games that end on the way are neither won, reported nor counted by EngineMetrics again), and then the journal
+     * starts recording the game.
+     * Otherwise, a new journal is created for the game as it is (which is expected to be at its start).
+     *
+     * @param file         Given file.
+     * @param game         Given game, which should have no other listener that changes it.
+     * @param commitMillis The longest time a record waits before it's forced to the disk, in milliseconds.
+     * @return The journal, which is a listener of the game.
+     */
+    public static GameJournal open(Path file, GameLogic game, long commitMillis) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            Replayed replayed;
+            if (channel.size() < HEADER_BYTES) {  // a new file, or the header of a new file was cut by a crash
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+                while (header.hasRemaining())
+                    channel.write(header);
+                channel.force(true);
+                replayed = new Replayed(0, HEADER_BYTES);
+            } else {
+                replayed = replay(channel, game);
+                channel.truncate(replayed.bytes());  // cuts off a torn tail
+                channel.force(true);
+            }
+            channel.position(replayed.bytes());
+            GameJournal journal = new GameJournal(channel, commitMillis, replayed.records());
+            game.addListener(journal);
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The valid part of a journal file: its number of records, and its length in bytes (including the header).
+     */
+    private record Replayed(long records, long bytes) {
+    }
+
+    /**
+     * Resets a game and replays the valid records of a journal file into it, as movements that are revisited.
+     *
+     * @return The valid part of the file.
+     * @throws IOException If a complete record can't be applied to the game.
+     */
+    private static Replayed replay(FileChannel channel, GameLogic game) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.position(0);
+        while (header.hasRemaining() && channel.read(header) > 0)
+            ;
+        if (header.flip().getInt() != MAGIC || header.getInt() != VERSION)
+            throw new IOException("Not a game journal (or of another version)");
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        long records = 0, bytes = HEADER_BYTES;
+        game.setRevisiting(true);
+        try {
+            game.reset();
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_BYTES) {
+                    int start = buffer.position();
+                    byte type = buffer.get(start), from = buffer.get(start + 1), to = buffer.get(start + 2);
+                    if (buffer.get(start + 3) != check(type, from, to))
+                        return new Replayed(records, bytes);
+                    int size = type == RESTORE ? RESTORE_BYTES : RECORD_BYTES;
+                    if (buffer.remaining() < size)
+                        break;  // the rest of the record is in the next read
+                    buffer.position(start + RECORD_BYTES);
+                    BoardSnapshot snapshot = null;
+                    if (type == RESTORE) {
+                        long[] words = new long[BoardSnapshot.WORDS];
+                        for (int i = 0; i < words.length; i++)
+                            words[i] = buffer.getLong();
+                        snapshot = BoardSnapshot.ofWords(words);
+                        if (buffer.getInt() != check(snapshot))
+                            return new Replayed(records, bytes);
+                    }
+                    if (!apply(game, type, from, to, snapshot))
+                        throw new IOException("Record " + records + " (at byte " + bytes + ") of the journal can't be "
+                                + "applied to the game");
+                    records++;
+                    bytes += size;
+                }
+                buffer.compact();
+            }
+            return new Replayed(records, bytes); // an incomplete record at the end is ignored
+        } finally {
+            game.setRevisiting(false);
+        }
+    }
+
+    /**
+     * Applies a single record to the game.
+     *
+     * @return False if the record can't be applied (a movement that the game rejects, or an unknown type).
+     */
+    private static boolean apply(GameLogic game, byte type, int from, int to, BoardSnapshot snapshot) {
+        switch (type) {
+            case MOVE -> {
+                if (from < 0 || from >= BitBoard.SQUARES || to < 0 || to >= BitBoard.SQUARES)
+                    return false;
+                return game.move(Position.ofSquare(from), Position.ofSquare(to));
+            }
+            case UNDO -> game.undoLastMove();
+            case RESET -> game.reset();
+            case RESTORE -> game.restore(snapshot);
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte check(byte type, byte from, byte to) {
+        return (byte) ((type * 31 + from) * 31 + to ^ 0x5A);
+    }
+
+    private static int check(BoardSnapshot snapshot) {
+        long hash = 0x5A;
+        for (int i = 0; i < BoardSnapshot.WORDS; i++)
+            hash = hash * 31 + snapshot.word(i);
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    @Override
+    public void onMove(int from, int to) {
+        append(MOVE, from, to, null);
+    }
+
+    @Override
+    public void onUndo(int from, int to, int restored) {
+        append(UNDO, from, to, null);
+    }
+
+    @Override
+    public void onReset() {
+        append(RESET, 0, 0, null);
+    }
+
+    @Override
+    public void onRestore(BoardSnapshot snapshot) {
+        append(RESTORE, 0, 0, snapshot);
+    }
+
+    /**
+     * Copies a record into the pending buffer (growing it if the writer has fallen behind), and wakes the writer up if
+     * it's idle.
+     */
+    private synchronized void append(byte type, int from, int to, BoardSnapshot snapshot) {
+        if (closed)
+            return;
+        if (pending.remaining() < RESTORE_BYTES) {
+            ByteBuffer larger = ByteBuffer.allocate(pending.capacity() * 2);
+            pending = larger.put(pending.flip());
+        }
+        pending.put(type).put((byte) from).put((byte) to).put(check(type, (byte) from, (byte) to));
+        if (snapshot != null) {
+            for (int i = 0; i < BoardSnapshot.WORDS; i++)
+                pending.putLong(snapshot.word(i));
+            pending.putInt(check(snapshot));
+        }
+        if (appended++ == committed)
+            notifyAll();
+    }
+
+    /**
+     * The loop of the writer thread: waits for records, collects the records of a commit interval, then writes and
+     * forces them together.
+     */
+    private void writeLoop() {
+        try {
+            while (true) {
+                long records;
+                synchronized (this) {
+                    while (appended == committed && !closed)
+                        wait();
+                    if (appended == committed)
+                        return; // closed, and everything was committed
+                    long wakeUp = System.nanoTime() + commitNanos;
+                    for (long left = commitNanos; !closed && left > 0; left = wakeUp - System.nanoTime())
+                        wait(Math.max(left / 1_000_000L, 1));
+                    ByteBuffer swap = writing;
+                    writing = pending.flip();
+                    pending = swap.clear();
+                    records = appended;
+                }
+                while (writing.hasRemaining())
+                    channel.write(writing);
+                channel.force(false);
+                synchronized (this) {
+                    committed = records;
+                    notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(new InterruptedIOException("The writer of the journal was interrupted"));
+        }
+    }
+
+    /**
+     * Stops the journal after its writer failed: later records are ignored, and sync() and close() throw the failure.
+     */
+    private synchronized void fail(IOException e) {
+        failure = e;
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * Waits until all the records appended so far are forced to the disk.
+     */
+    public synchronized void sync() throws IOException, InterruptedException {
+        long target = appended;
+        while (committed < target && failure == null)
+            wait();
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * @return The number of records in the journal (committed or not).
+     */
+    public synchronized long getRecordCount() {
+        return appended;
+    }
+
+    /**
+     * Commits the records appended so far, stops the writer and closes the file. Later events of the game are ignored
+     * (the journal should also be removed from the game's listeners).
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the journal");
+        } finally {
+            channel.close();
+        }
+        if (failure != null)
+            throw failure;
+    }
+}
@@ -0,0 +1,124 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameJournalTest {
+    private static final File INPUT = new File("src/test/resources/inputs/input1.txt");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testResumeByReplay() throws Exception {
+        List<Position> moves = GameLogicTest.parse(Files.readString(INPUT.toPath()));
+        Path file = dir.resolve("game.journal");
+        GameLogic game = new GameLogic(StatsSink.NONE);
+        try (GameJournal journal = GameJournal.open(file, game, 5)) {
+            for (int i = 0; i + 1 < moves.size(); i += 2)   // the whole game, which ends with its last movement
+                assertTrue(game.move(moves.get(i), moves.get(i + 1)));
+            game.reset();
+            for (int i = 0; i < 6; i += 2)
+                assertTrue(game.move(moves.get(i), moves.get(i + 1)));
+            game.undoLastMove();
+            assertFalse(game.move(moves.get(0), moves.get(1)));  // rejected movements aren't recorded
+            journal.sync();
+            assertEquals(moves.size() / 2 + 1 + 3 + 1, journal.getRecordCount());
+        }
+        assertEquals(GameJournal.HEADER_BYTES + (moves.size() / 2 + 5) * GameJournal.RECORD_BYTES, Files.size(file));
+
+        // a torn record at the end, as if the last write was cut by a crash
+        Files.write(file, new byte[]{1, 2}, StandardOpenOption.APPEND);
+        InMemoryStatsSink sink = new InMemoryStatsSink();
+        GameLogic resumed = new GameLogic(sink);
+        MetricsSnapshot before = EngineMetrics.snapshot();
+        try (GameJournal journal = GameJournal.open(file, resumed, 5)) {
+            MetricsSnapshot after = EngineMetrics.snapshot();
+            assertEquals(before.moves(), after.moves());    // the replayed movements aren't counted again
+            assertEquals(before.undos(), after.undos());
+            assertEquals(before.games(), after.games());
+            assertEquals(moves.size() / 2 + 5, journal.getRecordCount());
+            assertEquals(game.getZobristKey(), resumed.getZobristKey());
+            assertEquals(game.isSecondPlayerTurn(), resumed.isSecondPlayerTurn());
+            assertTrue(sink.getReports().isEmpty());   // the game that ended on the way wasn't reported again
+            assertEquals(0, resumed.getFirstPlayer().getWins() + resumed.getSecondPlayer().getWins());
+            assertTrue(resumed.move(moves.get(4), moves.get(5)));
+        }
+        assertEquals(GameJournal.HEADER_BYTES + (moves.size() / 2 + 6) * GameJournal.RECORD_BYTES, Files.size(file));
+
+        GameLogic again = new GameLogic(StatsSink.NONE);
+        GameJournal.open(file, again, 5).close();
+        assertEquals(resumed.getZobristKey(), again.getZobristKey());
+    }
+
+    @Test
+    void testResumeAfterRestoredSnapshot() throws Exception {
+        Path file = dir.resolve("game.journal");
+        GameLogic game = new GameLogic(StatsSink.NONE);
+        long records;
+        try (GameJournal journal = GameJournal.open(file, game, 5)) {
+            GameHistory history = new GameHistory(game);
+            SplittableRandom random = new SplittableRandom(1);
+            int[] buffer = new int[MoveGenerator.MAX_MOVES];
+            for (int ply = 0; ply < 100; ply++) {
+                int move = buffer[random.nextInt(game.generateLegalMoves(buffer))];
+                assertTrue(history.move(Position.ofSquare(MoveGenerator.from(move)), Position.ofSquare(MoveGenerator.to(move))));
+            }
+            history.goToPly(40);    // restores the checkpoint of ply 32
+            history.goToPly(70);
+            records = journal.getRecordCount();
+        }
+        long size = Files.size(file);
+
+        GameLogic resumed = new GameLogic(StatsSink.NONE);
+        try (GameJournal journal = GameJournal.open(file, resumed, 5)) {
+            assertEquals(records, journal.getRecordCount());
+            assertEquals(game.getZobristKey(), resumed.getZobristKey());
+            assertEquals(game.snapshot(), resumed.snapshot());
+        }
+        assertEquals(size, Files.size(file));
+    }
+
+    @Test
+    void testRejectedRecordKeepsTheFile() throws Exception {
+        List<Position> moves = GameLogicTest.parse(Files.readString(INPUT.toPath()));
+        Path file = dir.resolve("game.journal");
+        GameLogic game = new GameLogic(StatsSink.NONE);
+        assertTrue(game.move(moves.get(0), moves.get(1)));
+        GameJournal journal = GameJournal.open(file, game, 5);  // the journal of a game that didn't start with it
+        assertTrue(game.move(moves.get(2), moves.get(3)));
+        assertTrue(game.move(moves.get(4), moves.get(5)));
+        journal.close();
+        long size = Files.size(file);
+        assertThrows(IOException.class, () -> GameJournal.open(file, new GameLogic(StatsSink.NONE), 5));
+        assertEquals(size, Files.size(file));
+    }
+
+    @Test
+    void testInterruptedWriterFailsTheJournal() throws Exception {
+        GameLogic game = new GameLogic(StatsSink.NONE);
+        GameJournal journal = GameJournal.open(dir.resolve("game.journal"), game, 5);
+        Thread writer = Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().equals("game-journal")).findFirst().orElseThrow();
+        writer.interrupt();
+        writer.join();
+        assertThrows(InterruptedIOException.class, journal::sync);
+        assertThrows(InterruptedIOException.class, journal::close);
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws Exception {
+        Path file = dir.resolve("other");
+        Files.writeString(file, "not a journal at all");
+        assertThrows(IOException.class, () -> GameJournal.open(file, new GameLogic(StatsSink.NONE), 5));
+    }
+}
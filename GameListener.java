@@ -0,0 +1,60 @@
+/**
+ * Observes the events of a GameLogic (see GameLogic.addListener). Squares are numbered as in BitBoard, and the methods
+ * are called on the thread that changed the game, right after the change.
+ * The arguments are primitives (or existing objects), so a game doesn't allocate in order to report an event, and
+ * doesn't report anything when it has no listeners. Slow listeners may be wrapped with AsyncGameListener.
+ */
+public interface GameListener {
+    /**
+     * A piece was moved (before its kills, if it killed any).
+     *
+     * @param from The square from which the piece was moved.
+     * @param to   The square to which the piece was moved.
+     */
+    default void onMove(int from, int to) {
+    }
+
+    /**
+     * A piece was killed by the piece that was moved last.
+     *
+     * @param killerSquare The square of the killer.
+     * @param victimSquare The square from which the dead piece was removed.
+     */
+    default void onCapture(int killerSquare, int victimSquare) {
+    }
+
+    /**
+     * The last movement was undone.
+     *
+     * @param from     The square to which the piece was moved back.
+     * @param to       The square from which the piece was moved back.
+     * @param restored The number of pieces killed by the movement, which were put back on the board.
+     */
+    default void onUndo(int from, int to, int restored) {
+    }
+
+    /**
+     * The game ended (after the events of its last movement).
+     *
+     * @param winner The winner of the game.
+     * @param plies  The number of movements made in the game.
+     */
+    default void onGameEnd(Player winner, int plies) {
+    }
+
+    /**
+     * The game was reset to its initial state.
+     */
+    default void onReset() {
+    }
+
+    /**
+     * The board of the game was replaced with a snapshot (see GameLogic.restore). Like a reset, the movements made
+     * before can't be undone anymore. By default, reported as a reset.
+     *
+     * @param snapshot The snapshot that was restored.
+     */
+    default void onRestore(BoardSnapshot snapshot) {
+        onReset();
+    }
+}
@@ -0,0 +1,136 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameListenerTest {
+    private static final File INPUT = new File("src/test/resources/inputs/input1.txt");
+
+    /**
+     * Records every event as a line of text.
+     */
+    private static class RecordingListener implements GameListener {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onMove(int from, int to) {
+            events.add("move " + from + " " + to);
+        }
+
+        @Override
+        public void onCapture(int killerSquare, int victimSquare) {
+            events.add("capture " + killerSquare + " " + victimSquare);
+        }
+
+        @Override
+        public void onUndo(int from, int to, int restored) {
+            events.add("undo " + from + " " + to + " " + restored);
+        }
+
+        @Override
+        public void onGameEnd(Player winner, int plies) {
+            events.add("end " + winner.isPlayerOne() + " " + plies);
+        }
+
+        @Override
+        public void onReset() {
+            events.add("reset");
+        }
+    }
+
+    @Test
+    void testEventsOfAGame() throws Exception {
+        List<Position> moves = GameLogicTest.parse(Files.readString(INPUT.toPath()));
+        GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+        RecordingListener recorder = new RecordingListener();
+        gameLogic.addListener(recorder);
+
+        assertTrue(gameLogic.move(moves.get(0), moves.get(1)));
+        gameLogic.undoLastMove();
+        assertFalse(gameLogic.move(moves.get(1), moves.get(0)));    // rejected movements aren't reported
+        int from = BitBoard.square(moves.get(0).getX(), moves.get(0).getY());
+        int to = BitBoard.square(moves.get(1).getX(), moves.get(1).getY());
+        assertEquals(List.of("move " + from + " " + to, "undo " + from + " " + to + " 0"), recorder.events);
+
+        recorder.events.clear();
+        for (int i = 0; i < moves.size() - 1; i += 2)
+            assertTrue(gameLogic.move(moves.get(i), moves.get(i + 1)));
+        int plies = moves.size() / 2;
+        assertEquals(plies, recorder.events.stream().filter(event -> event.startsWith("move")).count());
+        assertEquals("end false " + plies, recorder.events.getLast());
+        long captures = recorder.events.stream().filter(event -> event.startsWith("capture")).count();
+        int kills = 0;
+        for (int sq = 0; sq < BitBoard.SQUARES; sq++) {
+            if (gameLogic.getPieceAtPosition(Position.ofSquare(sq)) instanceof Pawn pawn)
+                kills += pawn.getKills();
+        }
+        assertEquals(kills, captures);
+
+        gameLogic.removeListener(recorder);
+        gameLogic.reset();
+        assertEquals("end false " + plies, recorder.events.getLast());
+    }
+
+    @Test
+    void testAsyncListenerDispatchesInOrder() throws Exception {
+        List<Position> moves = GameLogicTest.parse(Files.readString(INPUT.toPath()));
+        GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+        RecordingListener direct = new RecordingListener(), dispatched = new RecordingListener();
+        AsyncGameListener async = new AsyncGameListener(dispatched, 1024);
+        gameLogic.addListener(direct);
+        gameLogic.addListener(async);
+        for (int i = 0; i < moves.size() - 1; i += 2)
+            assertTrue(gameLogic.move(moves.get(i), moves.get(i + 1)));
+        gameLogic.reset();
+        async.close();
+        assertEquals(0, async.getDroppedEvents());
+        assertEquals(direct.events, dispatched.events);
+    }
+
+    @Test
+    void testFullQueueDropsEvents() throws Exception {
+        CountDownLatch busy = new CountDownLatch(1), release = new CountDownLatch(1);
+        RecordingListener recorder = new RecordingListener() {
+            @Override
+            public void onReset() {
+                super.onReset();
+                busy.countDown();
+                try {
+                    release.await();    // keeps the dispatch thread busy
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        AsyncGameListener async = new AsyncGameListener(recorder, 2);
+        async.onReset();
+        busy.await();
+        for (int i = 0; i < 5; i++)
+            async.onMove(i, i + 1);
+        release.countDown();
+        async.close();
+        assertEquals(3, async.getDroppedEvents());
+        assertEquals(List.of("reset", "move 0 1", "move 1 2"), recorder.events);
+    }
+
+    @Test
+    void testFailingListenerIsCounted() {
+        RecordingListener recorder = new RecordingListener() {
+            @Override
+            public void onCapture(int killerSquare, int victimSquare) {
+                throw new IllegalStateException("failing listener");
+            }
+        };
+        AsyncGameListener async = new AsyncGameListener(recorder, 16);
+        async.onCapture(1, 2);
+        async.onMove(3, 4);
+        async.close();
+        assertEquals(1, async.getFailedEvents());
+        assertEquals(List.of("move 3 4"), recorder.events);
+    }
+}
@@ -1,230 +1,268 @@
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
-import java.util.Stack;
+import java.util.concurrent.Executor;
 
 public class GameLogic implements PlayableLogic {
     /* Player 1 is the defender, Player 2 is the attacker */
-    public static final ConcretePlayer P1 = new ConcretePlayer(true), P2 = new ConcretePlayer(false);
+    private final ConcretePlayer p1 = new ConcretePlayer(true), p2 = new ConcretePlayer(false);
     public static final int BOARD_SIZE = 11, p1NumOfPieces = 13, p2NumOfPieces = 24;
     public static final String P1_Pawn_Unicode = "♙", P1_King_Unicode = "♕", P2_Pawn_Unicode = "♟";
     private boolean isP2Turn;
     private boolean isOver;
-    private static Piece[][] board = new Piece[BOARD_SIZE][BOARD_SIZE]; // the game board
-    private static Stack<Position> pastMovements;   // keeps track of all the (valid) piece movements in the game
-    private static Stack<Integer> killedPiecesCounts;    // keeps track of how many pieces were killed in each turn
-    private static Stack<Piece> deadPawns; // stores pawns that were removed from the board
-    private static Stack<Position> lastPositionOfDead;  // stores the positions in which pieces have been killed
-    private static final String PARTITION = "***************************************************************************";
-    public static final boolean CONSOLE_PRINT = false; //TODO
+    private BitBoard bitBoard;   // the game board
+    private ConcretePiece[] pieceAt; // the pieces on the board by square number (null for empty squares)
+    private final MoveJournal journal = new MoveJournal();   // keeps track of all the (valid) movements and their kills
+    private final ConcretePiece[] deadPawns = new ConcretePiece[PieceRegistry.PIECES]; // pawns removed from the board, in order
+    private int deadCount;
+    private int undoDepth;  // the number of movements undone since the last movement was made
+    /* The statistics of all the pieces of the game (alive or dead) and their views by index (see PieceRegistry), the
+     * number of times each of them stepped on each square, and the number of different pieces that stepped on each square */
+    private final PieceRegistry registry = new PieceRegistry(p1, p2);
+    private final ConcretePiece[] pieces = new ConcretePiece[PieceRegistry.PIECES];
+    private final int[][] visits = new int[PieceRegistry.PIECES][BitBoard.SQUARES];
+    private final int[] visitors = new int[BitBoard.SQUARES];
+    /* The squares changed since they were last taken (see takeChangedSquares), as bits of squares 0-63 and 64-120 */
+    private long changedLo, changedHi;
+    private final StatsSink statsSink;   // where the stats of finished games are written
+    private final Executor reportExecutor;  // produces and writes the stats (null for the thread that ended the game)
+    private boolean revisiting; // true while movements are made again (see GameHistory and GameJournal)
+    private static final GameListener[] NO_LISTENERS = {};
+    private GameListener[] listeners = NO_LISTENERS;  // replaced (never changed) when a listener is added or removed
 
+    /**
+     * Creates a game that prints the stats of every finished game to System.out.
+     */
     public GameLogic() {
+        this(new StreamStatsSink(null));
+    }
+
+    /**
+     * @param statsSink The sink to which the stats of every finished game will be written, on the thread that ended it.
+     */
+    public GameLogic(StatsSink statsSink) {
+        this(statsSink, null);
+    }
+
+    /**
+     * @param statsSink      The sink to which the stats of every finished game will be written.
+     * @param reportExecutor The executor that produces and writes the stats (off the game's thread), or null for the
+     *                       thread that ended the game.
+     */
+    public GameLogic(StatsSink statsSink, Executor reportExecutor) {
+        this.statsSink = statsSink;
+        this.reportExecutor = reportExecutor;
+        for (int i = 0; i < pieces.length; i++)
+            pieces[i] = registry.isKing(i) ? new King(registry) : new Pawn(registry, i);
         isOver = false;
         isP2Turn = true;
-        pastMovements = new Stack<>();
-        killedPiecesCounts = new Stack<>();
-        deadPawns = new Stack<>();
-        lastPositionOfDead = new Stack<>();
         resetBoard();
     }
 
     @Override
     public boolean move(Position a, Position b) {
-        Piece mover = getPieceAtPosition(a);
-        if (mover != null && getPieceAtPosition(b) == null) {
-            if (isSecondPlayerTurn() && mover.getOwner() == P2 || !isSecondPlayerTurn() && mover.getOwner() == P1) {
-                if (b.isCorner() && !isKing(mover))
-                    return false;
-                if (!isPathValid(a, b))
-                    return false;
-                board[b.getX()][b.getY()] = mover;
-                board[a.getX()][a.getY()] = null;
-                ((ConcretePiece) mover).addMovement(a, b);  // updates positionHistory and totalDistance of the last piece moved
-                pastMovements.push(a);
-                pastMovements.push(b);
-                checkKillerSurroundings(b);
-                isP2Turn = !isP2Turn;   //changes turns
-                return true;
-            }
+        long start = System.nanoTime();
+        MoveRejection rejection = rejectionOf(a, b);
+        if (rejection != null) {
+            EngineMetrics.moveRejected(squareOrNone(a), squareOrNone(b), rejection);
+            return false;
         }
-        return false;
+        int from = BitBoard.square(a.getX(), a.getY()), to = BitBoard.square(b.getX(), b.getY());
+        ConcretePiece mover = pieceAt[from];
+        bitBoard.movePiece(from, to);
+        pieceAt[to] = mover;
+        pieceAt[from] = null;
+        markChanged(from);
+        markChanged(to);
+        int piece = mover.getIndex();
+        if (registry.getHistoryLength(piece) == 0)
+            addVisit(piece, from);
+        addVisit(piece, to);
+        registry.addMovement(piece, from, to);  // updates the position history and distance of the piece
+        for (GameListener listener : listeners)
+            listener.onMove(from, to);
+        checkKillerSurroundings(from, to);
+        isP2Turn = !isP2Turn;   //changes turns
+        undoDepth = 0;
+        int kills = Integer.bitCount(MoveJournal.kills(journal.get(journal.size() - 1)) & 0xF);
+        if (!revisiting)
+            EngineMetrics.moveMade(from, to, kills, journal.size(), System.nanoTime() - start);
+        return true;
+    }
+
+    /**
+     * Checks whether a movement may be made by move(), according to the rules of the game.
+     *
+     * @param a The starting position of the piece.
+     * @param b The destination position for the piece.
+     * @return The reason for which the movement may not be made, or null if it may.
+     */
+    private MoveRejection rejectionOf(Position a, Position b) {
+        if (isOutOfBounds(a) || isOutOfBounds(b))
+            return MoveRejection.OUT_OF_BOUNDS;
+        int from = BitBoard.square(a.getX(), a.getY()), to = BitBoard.square(b.getX(), b.getY());
+        int side = bitBoard.sideAt(from);
+        if (side == BitBoard.NONE)
+            return MoveRejection.EMPTY_SOURCE;
+        if (bitBoard.isOccupied(to))
+            return MoveRejection.OCCUPIED_TARGET;
+        if (isP2Turn != (side == BitBoard.P2))
+            return MoveRejection.WRONG_TURN;
+        if (BitBoard.isCorner(to) && from != bitBoard.getKingSquare())
+            return MoveRejection.CORNER;
+        if (!bitBoard.isPathClear(from, to))
+            return MoveRejection.BLOCKED_PATH;
+        return null;
+    }
+
+    /**
+     * @return The square of a given position, or BitBoard.NONE if it's out of the board.
+     */
+    private int squareOrNone(Position pos) {
+        return isOutOfBounds(pos) ? BitBoard.NONE : BitBoard.square(pos.getX(), pos.getY());
     }
 
     @Override
     public Piece getPieceAtPosition(Position position) {
         if (isOutOfBounds(position))
             return null;
-        return board[position.getX()][position.getY()];
+        return pieceAt[BitBoard.square(position.getX(), position.getY())];
     }
 
     /**
-     * Checks if a given position is inside the boundaries of the playing board.
+     * Writes all the legal movements of the player whose turn it is into a given buffer, in the format of
+     * MoveGenerator.encode(). Uses the same rules as move().
      *
-     * @param pos Given position.
-     * @return True if the position is inside the board, False otherwise.
+     * @param buffer Given buffer, with at least MoveGenerator.MAX_MOVES cells.
+     * @return The number of movements written, 0 if the game is finished.
      */
-    private boolean isOutOfBounds(Position pos) {
-        return pos.getX() < 0 || pos.getY() < 0 || pos.getX() >= BOARD_SIZE || pos.getY() >= BOARD_SIZE;
-    }
-
-    @Override
-    public boolean isSecondPlayerTurn() {
-        return isP2Turn;
+    public int generateLegalMoves(int[] buffer) {
+        if (isOver)
+            return 0;
+        return MoveGenerator.generateMoves(bitBoard, isP2Turn ? BitBoard.P2 : BitBoard.P1, buffer);
     }
 
     /**
-     * Checks whether a given piece is the king.
+     * Adds a listener to the events of this game. Should be called by the thread that plays the game (or before it
+     * starts), as the listeners are called by that thread.
      *
-     * @param piece Given piece.
-     * @return True if the piece is the king, False otherwise.
+     * @param listener Given listener.
      */
-    private boolean isKing(Piece piece) {
-        if (piece != null)
-            return piece.getType().equals(P1_King_Unicode);
-        return false;
+    public void addListener(GameListener listener) {
+        GameListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
     }
 
     /**
-     * Checks if the path between 2 given positions is on a diagonal or horizontal line and also if it's clear for a
-     * piece to pass through.
+     * Removes a listener that was added by addListener (if it was).
      *
-     * @param a Starting position
-     * @param b End position
-     * @return True if a piece can move along the path between a and b, False otherwise.
-     */
-    private boolean isPathValid(Position a, Position b) {
-        int aX = a.getX(), aY = a.getY(), bX = b.getX(), bY = b.getY();
-        if (aX == bX) {
-            int yRunner = aY;
-            int direction = (bY - aY) / Math.abs(bY - aY);  // -1 or 1
-            while (yRunner != bY - direction) {
-                if (board[aX][yRunner + direction] != null)
-                    return false;
-                yRunner += direction;
-            }
-            return true;
-        } else if (aY == bY) {
-            int xRunner = aX;
-            int direction = (bX - aX) / Math.abs(bX - aX);  // -1 or 1
-            while (xRunner != bX - direction) {
-                if (board[xRunner + direction][aY] != null)
-                    return false;
-                xRunner += direction;
+     * @param listener Given listener.
+     */
+    public void removeListener(GameListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                GameListener[] updated = new GameListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, updated, 0, i);
+                System.arraycopy(listeners, i + 1, updated, i, updated.length - i);
+                listeners = updated.length == 0 ? NO_LISTENERS : updated;
+                return;
             }
-            return true;
         }
-        return false;
     }
 
     /**
-     * Checks whether the last movement (of a piece) caused other enemy pieces to be killed, and updates the board accordingly.
-     * Also updates the relevant game-tracking Stacks.
-     * Also decides if the game is finished.
+     * Writes the squares whose content changed (by movements, kills, undos and resets) since the last call into a given
+     * buffer, and forgets them. Changes made between two calls are coalesced, so a view may call this once per repaint
+     * no matter how many movements were made meanwhile.
      *
-     * @param killerPosition The position to which a piece has been moved in the last turn.
-     */
-    private void checkKillerSurroundings(Position killerPosition) {
-        Piece killer = getPieceAtPosition(killerPosition);
-        int i = 0, killedPiecesCount = 0;
-        if (isKing(killer)) {
-            if (killerPosition.isCorner())
-                endGame(killer);    // end game if king reached corner
-        } else {
-            Position[] killersNeighbors = getNeighborPositions(killerPosition); // array with size 4
-            while (i < 4) {
-                Position toKillFrom = killersNeighbors[i];
-                Piece toKill = getPieceAtPosition(toKillFrom);
-                if (toKill != null) {
-                    if (toKill.getOwner() != killer.getOwner()) {
-                        boolean[] surrArr = surroundingEnemiesStatus(toKillFrom);
-                        if (isKing(toKill)) {
-                            boolean isKingDead = true;
-                            for (int j = 0; j < 4; j++) {
-                                if (!surrArr[j]) {
-                                    isKingDead = false;
-                                    break;
-                                }
-                            }
-                            if (isKingDead) {
-                                endGame(killer);    // end game if king is dead
-                                break;
-                            }
-                        } else {
-                            int xDiff = toKillFrom.getX() - killerPosition.getX();  // between -1 and 1
-                            int yDiff = toKillFrom.getY() - killerPosition.getY();  // between -1 and 1
-                            Position pincerPosition = new Position(toKillFrom.getX() + xDiff, toKillFrom.getY() + yDiff);
-                            if (xDiff != 0) {
-                                if (surrArr[1 + xDiff] || pincerPosition.isCorner()) {
-                                    killPieceAtPosition(killer, toKillFrom);    // kill if surrounded horizontally (because of last turn)
-                                    killedPiecesCount++;
-                                }
-                            } else if (yDiff != 0) {
-                                if (surrArr[2 + yDiff] || pincerPosition.isCorner()) {
-                                    killPieceAtPosition(killer, toKillFrom);    // kill if surrounded vertically (because of last turn)
-                                    killedPiecesCount++;
-                                }
-                            }
-                        }
-                    }
-                }
-                i++;
-            }
-        }
-        if (i == 4) // only if the game hasn't ended before exiting the loop
-            killedPiecesCounts.push(killedPiecesCount);
+     * @param buffer Given buffer, with at least BitBoard.SQUARES cells.
+     * @return The number of squares written, in increasing order.
+     */
+    public int takeChangedSquares(int[] buffer) {
+        int count = 0;
+        for (long bits = changedLo; bits != 0; bits &= bits - 1)
+            buffer[count++] = Long.numberOfTrailingZeros(bits);
+        for (long bits = changedHi; bits != 0; bits &= bits - 1)
+            buffer[count++] = 64 + Long.numberOfTrailingZeros(bits);
+        changedLo = changedHi = 0;
+        return count;
+    }
+
+    /**
+     * Marks a given square as changed, until it's taken by takeChangedSquares.
+     */
+    private void markChanged(int sq) {
+        if (sq < 64)
+            changedLo |= 1L << sq;
+        else
+            changedHi |= 1L << (sq - 64);
+    }
+
+    /**
+     * @return The 64-bit Zobrist key of the current position (the pieces on the board and whose turn it is), which is
+     * maintained incrementally by every change to the board.
+     */
+    public long getZobristKey() {
+        return bitBoard.getKey(isP2Turn ? BitBoard.P2 : BitBoard.P1);
+    }
+
+    /**
+     * @return A copy of the current playing board.
+     */
+    public BitBoard copyBoard() {
+        return new BitBoard(bitBoard);
     }
 
     /**
-     * Returns the neighbor-positions of a given position in this order: left, up, right, down.
+     * Checks if a given position is inside the boundaries of the playing board.
      *
-     * @param center Given position.
-     * @return A 4-cell array with the positions that are adjacent to the given position.
+     * @param pos Given position.
+     * @return True if the position is inside the board, False otherwise.
      */
-    private Position[] getNeighborPositions(Position center) {
-        Position[] neighbors = new Position[4];
-        neighbors[0] = new Position(center.getX() - 1, center.getY());
-        neighbors[1] = new Position(center.getX(), center.getY() - 1);
-        neighbors[2] = new Position(center.getX() + 1, center.getY());
-        neighbors[3] = new Position(center.getX(), center.getY() + 1);
-        return neighbors;
+    private boolean isOutOfBounds(Position pos) {
+        return pos.getX() < 0 || pos.getY() < 0 || pos.getX() >= BOARD_SIZE || pos.getY() >= BOARD_SIZE;
+    }
+
+    @Override
+    public boolean isSecondPlayerTurn() {
+        return isP2Turn;
     }
 
     /**
-     * Checks if there are enemy pawns in the surroundings of a given piece.
+     * Checks whether the last movement (of a piece) caused other enemy pieces to be killed, and updates the board accordingly.
+     * Also records the movement in the journal.
+     * Also decides if the game is finished.
      *
-     * @param center The position in which the checked piece is.
-     * @return A 4-cell boolean array that functions as the following:
-     * For each direction - left=0, up=1, right=2, down=3 - the cell with the matching index will be set True if there is an enemy pawn
-     * in its direction, or if 'center' is blocked by the edge of the board in this direction. Otherwise, the cell will be set False.
-     */
-    private boolean[] surroundingEnemiesStatus(Position center) {
-        boolean[] ans = new boolean[4];
-        Position[] neighbors = getNeighborPositions(center);
-        for (int i = 0; i < 4; i++) {
-            if (isOutOfBounds(neighbors[i]))
-                ans[i] = true;
-            else if (neighbors[i] != null) {
-                Piece neighbor = getPieceAtPosition(neighbors[i]);
-                if (neighbor != null && !isKing(neighbor))
-                    if (neighbor.getOwner() != getPieceAtPosition(center).getOwner())
-                        ans[i] = true;
+     * @param fromSquare   The square from which a piece has been moved in the last turn.
+     * @param killerSquare The square to which a piece has been moved in the last turn.
+     */
+    private void checkKillerSurroundings(int fromSquare, int killerSquare) {
+        ConcretePiece killer = pieceAt[killerSquare];
+        int kills = bitBoard.killsBy(killerSquare);
+        for (int dir = BitBoard.LEFT; dir <= BitBoard.DOWN; dir++) {
+            if ((kills & 1 << dir) != 0) {
+                int victimSquare = BitBoard.neighbor(killerSquare, dir);
+                killPieceAtPosition(killer, victimSquare);
+                for (GameListener listener : listeners)
+                    listener.onCapture(killerSquare, victimSquare);
             }
         }
-        return ans;
+        journal.push(fromSquare, killerSquare, kills);
+        if ((kills & BitBoard.GAME_OVER) != 0)
+            endGame(killer);    // end game if king reached corner or is dead
     }
 
     /**
      * Removes a (now) dead piece from the board while increasing the kill count of the killer.
      *
      * @param killer     The piece that killed the other.
-     * @param toKillFrom The position in which the given piece had died.
+     * @param toKillFrom The square in which the given piece had died.
      */
-    private void killPieceAtPosition(Piece killer, Position toKillFrom) {
-        lastPositionOfDead.push(toKillFrom);
-        int x = toKillFrom.getX(), y = toKillFrom.getY();
-        deadPawns.push(board[x][y]);
-        ((Pawn) killer).addKill();
-        board[x][y] = null;
+    private void killPieceAtPosition(ConcretePiece killer, int toKillFrom) {
+        deadPawns[deadCount++] = pieceAt[toKillFrom];
+        registry.addKills(killer.getIndex(), 1);
+        pieceAt[toKillFrom] = null;
+        bitBoard.remove(toKillFrom);
+        markChanged(toKillFrom);
     }
 
     /**
@@ -238,202 +276,83 @@ public class GameLogic implements PlayableLogic {
 //            ((Pawn) p).addKill();
         isOver = true;
         Player winner = p.getOwner();
-        ((ConcretePlayer) winner).addWin();
+        if (!revisiting)
+            ((ConcretePlayer) winner).addWin();
+        for (GameListener listener : listeners)
+            listener.onGameEnd(winner, journal.size());
+        if (!revisiting)
+            EngineMetrics.gameEnded(journal.size(), winner == p1);
         printStats(winner);
     }
 
     /**
-     * Prints the statistics of the recently finished game (according to the assignment).
-     * Uses the comparator-implementing methods stats1, stats2, stats3, stats4.
+     * Hands the statistics of the recently finished game (according to the assignment) to the stats sink, either right
+     * away or through the report executor. Takes a snapshot of the statistics, so the game may be reset meanwhile.
      *
      * @param winner The winner of the last game.
      */
     private void printStats(Player winner) {
-        /* Putting all the pieces (alive or dead) into 2 arrays - one for each player */
-        ConcretePiece[] p1Arr = new ConcretePiece[p1NumOfPieces], p2Arr = new ConcretePiece[p2NumOfPieces];
-        int t1 = 0, t2 = 0;
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                ConcretePiece temp = (ConcretePiece) board[i][j];
-                if (temp != null) {
-                    if (temp.getOwner() == P1)
-                        p1Arr[t1++] = temp;
-                    else
-                        p2Arr[t2++] = temp;
-                }
-            }
-        }
-        while (!deadPawns.isEmpty()) {
-            ConcretePiece temp2 = (ConcretePiece) deadPawns.pop();
-            if (temp2.getOwner() == P1)
-                p1Arr[t1++] = temp2;
-            else
-                p2Arr[t2++] = temp2;
-        }
-        /* Printing game stats */
-        ConcretePiece[] allPieces = Arrays.copyOf(p1Arr, p1Arr.length + p2Arr.length);  // merges the arrays
-        System.arraycopy(p2Arr, 0, allPieces, p1Arr.length, p2Arr.length);                      // p1Arr and p2Arr
-        System.out.print(stats1(p1Arr, p2Arr, winner));
-        System.out.print(PARTITION);
-        System.out.println(stats2(allPieces, winner));
-        System.out.print(PARTITION);
-        System.out.println(stats3(allPieces, winner));
-        System.out.print(PARTITION);
-        System.out.println(stats4(allPieces));
-        System.out.println(PARTITION);
-    }
-
-    private String stats1(ConcretePiece[] p1Arr, ConcretePiece[] p2Arr, Player winner) {
-        class stepsCompareAscending implements Comparator<ConcretePiece> {
-            @Override
-            public int compare(ConcretePiece pi1, ConcretePiece pi2) {
-                int size1 = pi1.getPositionHistory().size(), size2 = pi2.getPositionHistory().size();
-                if (size1 == size2) {
-                    String idStr1 = pi1.getId().substring(1), idStr2 = pi2.getId().substring(1);
-                    int idInt1 = Integer.parseInt(idStr1), idInt2 = Integer.parseInt(idStr2);
-                    return Integer.compare(idInt1, idInt2);
-                }
-                return Integer.compare(size1, size2);
-            }
-        }
-        Arrays.sort(p1Arr, new stepsCompareAscending());
-        Arrays.sort(p2Arr, new stepsCompareAscending());
-        StringBuilder s1 = new StringBuilder();
-        StringBuilder s2 = new StringBuilder();
-        for (int i = 0; i < p2NumOfPieces; i++) {
-            if (i < p1NumOfPieces) {
-                if (!p1Arr[i].getPositionHistory().isEmpty())
-                    s1.append(p1Arr[i].getId()).append(": ").append(p1Arr[i].getPositionHistory()).append('\n');
-            }
-            if (!p2Arr[i].getPositionHistory().isEmpty())
-                s2.append(p2Arr[i].getId()).append(": ").append(p2Arr[i].getPositionHistory()).append("\n");
-        }
-        if (winner == P1)
-            return s1.toString() + s2;
+        if (statsSink == StatsSink.NONE || revisiting)
+            return;
+        StatsReport report = statsReport(winner);
+        if (reportExecutor == null)
+            EngineMetrics.printStats(report, statsSink);
         else
-            return s2 + s1.toString();
-    }
-
-    private String stats2(ConcretePiece[] pieces, Player winner) {
-        class killsCompareDescending implements Comparator<ConcretePiece> {
-            @Override
-            public int compare(ConcretePiece pi1, ConcretePiece pi2) {
-                if (isKing(pi1))
-                    return -1;
-                else if (isKing(pi2))
-                    return 1;
-                int pi1Kills = ((Pawn) pi1).getKills(), pi2Kills = ((Pawn) pi2).getKills();
-                return stats2And3Help(pi1, pi2, pi1Kills, pi2Kills, winner);
-            }
-        }
-        StringBuilder ans = new StringBuilder();
-        Arrays.sort(pieces, new killsCompareDescending());
-        for (ConcretePiece p : pieces) {
-            if (!isKing(p) && ((Pawn) p).getKills() > 0)
-                ans.append('\n').append(p.getId()).append(": ").append(((Pawn) p).getKills()).append(" kills");
-        }
-        return ans.toString();
+            reportExecutor.execute(() -> EngineMetrics.printStats(report, statsSink));
     }
 
-    private String stats3(ConcretePiece[] pieces, Player winner) {
-        class stepsCompareDescending implements Comparator<ConcretePiece> {
-            @Override
-            public int compare(ConcretePiece pi1, ConcretePiece pi2) {
-                int pi1Dist = pi1.getTotalDistance(), pi2Dist = pi2.getTotalDistance();
-                return stats2And3Help(pi1, pi2, pi1Dist, pi2Dist, winner);
-            }
+    /**
+     * @param winner The winner of the game.
+     * @return A snapshot of the current statistics of the game, as printed when it ends.
+     */
+    StatsReport statsReport(Player winner) {
+        return new StatsReport(registry, visitors, winner);
+    }
 
-        }
-        StringBuilder ans = new StringBuilder();
-        Arrays.sort(pieces, new stepsCompareDescending());
-        for (ConcretePiece p : pieces) {
-            if (p.getTotalDistance() > 0)
-                ans.append('\n').append(p.getId()).append(": ").append(p.getTotalDistance()).append(" squares");
-        }
-        return ans.toString();
-    }
-
-    private String stats4(ConcretePiece[] pieces) {
-        int[][] diffPiecesCounter = new int[BOARD_SIZE][BOARD_SIZE];
-        for (ConcretePiece p : pieces) {
-            ArrayList<Position> positionHistory = p.getPositionHistory();
-            if (positionHistory != null) {
-                boolean[][] wasOnPosition = new boolean[BOARD_SIZE][BOARD_SIZE];
-                while (!positionHistory.isEmpty()) {
-                    Position pos = positionHistory.removeFirst();
-                    wasOnPosition[pos.getX()][pos.getY()] = true;
-                }
-                for (int i = 0; i < BOARD_SIZE; i++) {
-                    for (int j = 0; j < BOARD_SIZE; j++) {
-                        if (wasOnPosition[i][j])
-                            diffPiecesCounter[i][j]++;
-                    }
-                }
-            }
-        }
-        ArrayList<Position> positionsToPrint = new ArrayList<>();
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (diffPiecesCounter[i][j] > 1)
-                    positionsToPrint.add(new Position(i, j));
-            }
-        }
-        class positionCompareDescending implements Comparator<Position> {
-            @Override
-            public int compare(Position pos1, Position pos2) {
-                int x1 = pos1.getX(), y1 = pos1.getY(), x2 = pos2.getX(), y2 = pos2.getY();
-                int steppedOnCount1 = diffPiecesCounter[x1][y1], steppedOnCount2 = diffPiecesCounter[x2][y2];
-                if (steppedOnCount1 == steppedOnCount2) {
-                    if (x1 == x2)
-                        return Integer.compare(y1, y2);
-                    return Integer.compare(x1, x2);
-                }
-                return -Integer.compare(steppedOnCount1, steppedOnCount2);
-            }
-        }
-        StringBuilder ans = new StringBuilder();
-        positionsToPrint.sort(new positionCompareDescending());
-        while (!positionsToPrint.isEmpty()) {
-            Position toPrint = positionsToPrint.removeFirst();
-            ans.append('\n').append(toPrint).append(diffPiecesCounter[toPrint.getX()][toPrint.getY()]).append(" pieces");
-        }
-        return ans.toString();
+    /**
+     * Starts (or stops) revisiting movements that were already made: the games they end are neither won again nor
+     * reported again, and the movements aren't counted again by EngineMetrics.
+     */
+    void setRevisiting(boolean revisiting) {
+        this.revisiting = revisiting;
     }
 
     /**
-     * Since the comparators in stats2 and stats3 may do the same thing at some point, this method prevents duplicate sections of the code
-     * in each comparator.
-     *
-     * @param pi1     1st piece to compare.
-     * @param pi2     2nd piece to compare.
-     * @param pi1Dist totalDistance of pi1.
-     * @param pi2Dist totalDistance of pi2.
-     * @param winner  The winner of the last game.
-     * @return 1 if pi1>pi2, 0 if pi1=pi2, -1 if pi1<pi2 (according to the assignment).
-     */
-    private int stats2And3Help(ConcretePiece pi1, ConcretePiece pi2, int pi1Dist, int pi2Dist, Player winner) {
-        if (pi1Dist == pi2Dist) {
-            String idStr1 = pi1.getId().substring(1), idStr2 = pi2.getId().substring(1);
-            int idInt1 = Integer.parseInt(idStr1), idInt2 = Integer.parseInt(idStr2);
-            if (idInt1 == idInt2) {
-                if (pi1.getOwner() == winner)
-                    return -1;
-                else
-                    return 1;
-            }
-            return Integer.compare(idInt1, idInt2);
-        }
-        return -Integer.compare(pi1Dist, pi2Dist);
+     * @return The pieces of the game and their statistics (which are changed by the game).
+     */
+    PieceRegistry pieceRegistry() {
+        return registry;
+    }
+
+    /**
+     * @return The number of different pieces that stepped on a given square in this game.
+     */
+    int visitorsOf(int sq) {
+        return visitors[sq];
+    }
+
+    /**
+     * @return The number of movements made in this game (and not undone).
+     */
+    int plyCount() {
+        return journal.size();
+    }
+
+    /**
+     * @return The movement made at a given index (from 0) of this game, as recorded in its journal (see MoveJournal).
+     */
+    int ply(int index) {
+        return journal.get(index);
     }
 
     @Override
     public Player getFirstPlayer() {
-        return P1;
+        return p1;
     }
 
     @Override
     public Player getSecondPlayer() {
-        return P2;
+        return p2;
     }
 
     @Override
@@ -446,79 +365,202 @@ public class GameLogic implements PlayableLogic {
         resetBoard();
         isP2Turn = true;
         isOver = false;
-        pastMovements = new Stack<>();
-        killedPiecesCounts = new Stack<>();
-        deadPawns = new Stack<>();
-        lastPositionOfDead = new Stack<>();
+        clearHistory();
+        for (GameListener listener : listeners)
+            listener.onReset();
+    }
+
+    /**
+     * Takes a snapshot of the board of this game (the squares of the pieces and whose turn it is), which doesn't change
+     * with the game and may be handed to other threads. Should be called by the thread that plays the game.
+     *
+     * @return The snapshot.
+     */
+    public BoardSnapshot snapshot() {
+        int[] squares = new int[PieceRegistry.PIECES];
+        Arrays.fill(squares, BitBoard.NONE);
+        for (int side = BitBoard.P1; side <= BitBoard.P2; side++) {
+            for (long bits = bitBoard.getLo(side); bits != 0; bits &= bits - 1) {
+                int sq = Long.numberOfTrailingZeros(bits);
+                squares[pieceAt[sq].getIndex()] = sq;
+            }
+            for (long bits = bitBoard.getHi(side); bits != 0; bits &= bits - 1) {
+                int sq = 64 + Long.numberOfTrailingZeros(bits);
+                squares[pieceAt[sq].getIndex()] = sq;
+            }
+        }
+        return BoardSnapshot.of(squares, isP2Turn, isOver);
+    }
+
+    /**
+     * Replaces the board of this game with a given snapshot (taken from any game), as if the game started from there:
+     * the statistics of the pieces start over, and the movements made before can't be undone. The wins of the players
+     * are kept. Reported to the listeners by onRestore().
+     *
+     * @param snapshot Given snapshot.
+     */
+    public void restore(BoardSnapshot snapshot) {
+        clearBoard();
+        for (int piece = 0; piece < PieceRegistry.PIECES; piece++) {
+            int sq = snapshot.squareOf(piece);
+            if (sq == BitBoard.NONE)
+                continue;
+            pieceAt[sq] = pieces[piece];
+            if (registry.isKing(piece))
+                bitBoard.putKing(sq);
+            else
+                bitBoard.put(sq, registry.getSide(piece));
+        }
+        isP2Turn = snapshot.isSecondPlayerTurn();
+        isOver = snapshot.isGameFinished();
+        clearHistory();
+        for (GameListener listener : listeners)
+            listener.onRestore(snapshot);
     }
 
     /**
-     * (Re)Creates the playing board efficiently, which is a 2D array of Pieces where null Pieces represent empty squares on the board.
+     * Forgets the movements of the game (and the pawns they killed).
+     */
+    private void clearHistory() {
+        journal.clear();
+        Arrays.fill(deadPawns, 0, deadCount, null);
+        deadCount = 0;
+        undoDepth = 0;
+    }
+
+    /**
+     * (Re)Creates the playing board efficiently, which is a bitboard along with an array of the Pieces by square, where
+     * null Pieces represent empty squares on the board. The pieces themselves are kept, and their statistics are reset.
      */
     private void resetBoard() {
-        board = new Piece[BOARD_SIZE][BOARD_SIZE];
+        clearBoard();
 
         /* Setting up P1's Pieces */
         for (int rows = 0, id = 1; rows <= BOARD_SIZE / 4; rows++) {
             for (int cols = rows * -1; cols <= rows; cols++) {
-                board[cols + BOARD_SIZE / 2][rows + BOARD_SIZE / 4 + 1] = new Pawn(P1, P1_Pawn_Unicode, "D" + id);
+                place(cols + BOARD_SIZE / 2, rows + BOARD_SIZE / 4 + 1, BitBoard.P1, id);
                 if (rows < BOARD_SIZE / 4)
-                    board[BOARD_SIZE / 2 - cols][BOARD_SIZE * 3 / 4 - rows - 1] =
-                            new Pawn(P1, P1_Pawn_Unicode, "D" + (p1NumOfPieces - id + 1));
+                    place(BOARD_SIZE / 2 - cols, BOARD_SIZE * 3 / 4 - rows - 1, BitBoard.P1, p1NumOfPieces - id + 1);
                 id++;
             }
         }
-        board[BOARD_SIZE / 2][BOARD_SIZE / 2] = new King();
+        pieceAt[BitBoard.square(BOARD_SIZE / 2, BOARD_SIZE / 2)] = pieces[PieceRegistry.KING];  // in place of its number
+        bitBoard.putKing(BitBoard.square(BOARD_SIZE / 2, BOARD_SIZE / 2));
 
         /* Setting up P2's Pieces */
         for (int i = 1, j = 0; i < p2NumOfPieces / 4; i++) {
-            board[BOARD_SIZE / 4 + i][0] = new Pawn(P2, P2_Pawn_Unicode, "A" + i);
-            board[BOARD_SIZE * 3 / 4 - i][BOARD_SIZE - 1] = new Pawn(P2, P2_Pawn_Unicode, "A" + (p2NumOfPieces - i + 1));
+            place(BOARD_SIZE / 4 + i, 0, BitBoard.P2, i);
+            place(BOARD_SIZE * 3 / 4 - i, BOARD_SIZE - 1, BitBoard.P2, p2NumOfPieces - i + 1);
             if (i > p2NumOfPieces / 8)
                 j = 2;
-            board[0][BOARD_SIZE / 4 + i] = new Pawn(P2, P2_Pawn_Unicode, "A" + (p2NumOfPieces / 4 + 2 * i - 1 + j));
-            board[BOARD_SIZE - 1][BOARD_SIZE * 3 / 4 - i] = new Pawn(P2, P2_Pawn_Unicode, "A" + (p2NumOfPieces * 3 / 4 - 2 * i - j + 2));
+            place(0, BOARD_SIZE / 4 + i, BitBoard.P2, p2NumOfPieces / 4 + 2 * i - 1 + j);
+            place(BOARD_SIZE - 1, BOARD_SIZE * 3 / 4 - i, BitBoard.P2, p2NumOfPieces * 3 / 4 - 2 * i - j + 2);
         }
-        board[BOARD_SIZE / 2][1] = new Pawn(P2, P2_Pawn_Unicode, "A" + (p2NumOfPieces / 4));
-        board[1][BOARD_SIZE / 2] = new Pawn(P2, P2_Pawn_Unicode, "A" + (p2NumOfPieces / 2));
-        board[BOARD_SIZE - 2][BOARD_SIZE / 2] = new Pawn(P2, P2_Pawn_Unicode, "A" + (p2NumOfPieces / 2 + 1));
-        board[BOARD_SIZE / 2][BOARD_SIZE - 2] = new Pawn(P2, P2_Pawn_Unicode, "A" + (p2NumOfPieces * 3 / 4 + 1));
+        place(BOARD_SIZE / 2, 1, BitBoard.P2, p2NumOfPieces / 4);
+        place(1, BOARD_SIZE / 2, BitBoard.P2, p2NumOfPieces / 2);
+        place(BOARD_SIZE - 2, BOARD_SIZE / 2, BitBoard.P2, p2NumOfPieces / 2 + 1);
+        place(BOARD_SIZE / 2, BOARD_SIZE - 2, BitBoard.P2, p2NumOfPieces * 3 / 4 + 1);
+    }
+
+    /**
+     * Empties the board, and resets the statistics of the pieces.
+     */
+    private void clearBoard() {
+        bitBoard = new BitBoard();
+        pieceAt = new ConcretePiece[BitBoard.SQUARES];
+        registry.reset();
+        changedLo = -1L;    // every square
+        changedHi = -1L >>> (128 - BitBoard.SQUARES);
+        for (int[] pieceVisits : visits)
+            Arrays.fill(pieceVisits, 0);
+        Arrays.fill(visitors, 0);
+    }
+
+    /**
+     * Puts a pawn on the (empty) given square of the board.
+     *
+     * @param x      X coordinate of the square.
+     * @param y      Y coordinate of the square.
+     * @param side   The owner of the pawn (BitBoard.P1 or BitBoard.P2).
+     * @param number The number of the pawn.
+     */
+    private void place(int x, int y, int side, int number) {
+        int sq = BitBoard.square(x, y);
+        pieceAt[sq] = pieces[PieceRegistry.indexOf(side, number)];
+        bitBoard.put(sq, side);
+    }
+
+    /**
+     * Counts a step of a given piece (by index) on a given square.
+     */
+    private void addVisit(int piece, int sq) {
+        if (visits[piece][sq]++ == 0)
+            visitors[sq]++;
+    }
+
+    /**
+     * Cancels a step (counted by addVisit) of a given piece (by index) on a given square.
+     */
+    private void removeVisit(int piece, int sq) {
+        if (--visits[piece][sq] == 0)
+            visitors[sq]--;
     }
 
     @Override
     public void undoLastMove() {
-        if (!killedPiecesCounts.isEmpty()) {
-            restoreLastKilledPawns(killedPiecesCounts.pop());
-            moveBackLastPiece();
+        if (!journal.isEmpty() && !isOver) {
+            int ply = journal.pop();
+            restoreLastKilledPawns(MoveJournal.to(ply), MoveJournal.kills(ply));
+            moveBackLastPiece(MoveJournal.to(ply), MoveJournal.from(ply));
             isP2Turn = !isP2Turn;
+            int restored = Integer.bitCount(MoveJournal.kills(ply) & 0xF);
+            for (GameListener listener : listeners)
+                listener.onUndo(MoveJournal.from(ply), MoveJournal.to(ply), restored);
+            undoDepth++;
+            if (!revisiting)
+                EngineMetrics.moveUndone(MoveJournal.from(ply), MoveJournal.to(ply), restored, undoDepth);
         }
     }
 
     /**
-     * Restores a given number of dead pawns to their final position. Also decreases the kill count of their killer accordingly.
+     * Restores the pawns killed by the last movement to their final position. Also decreases the kill count of their
+     * killer accordingly.
      *
-     * @param toRestore Number of dead pawns to restore.
-     */
-    private void restoreLastKilledPawns(int toRestore) {
-        Piece killer = getPieceAtPosition(pastMovements.peek());
-        if (!isKing(killer))
-            ((Pawn) killer).decreaseKillsBy(toRestore);
-        while (toRestore > 0) {
-            Position restoreIn = lastPositionOfDead.pop();
-            board[restoreIn.getX()][restoreIn.getY()] = deadPawns.pop();
-            toRestore--;
+     * @param killerSquare The square to which the killer has moved.
+     * @param kills        The directions (from the killer) in which pawns were killed, as recorded in the journal.
+     */
+    private void restoreLastKilledPawns(int killerSquare, int kills) {
+        int toRestore = Integer.bitCount(kills & 0xF);
+        registry.addKills(pieceAt[killerSquare].getIndex(), -toRestore);
+        for (int dir = BitBoard.DOWN; dir >= BitBoard.LEFT; dir--) {    // the reverse order of killing
+            if ((kills & 1 << dir) != 0) {
+                int sq = BitBoard.neighbor(killerSquare, dir);
+                ConcretePiece restored = deadPawns[--deadCount];
+                deadPawns[deadCount] = null;
+                pieceAt[sq] = restored;
+                bitBoard.put(sq, registry.getSide(restored.getIndex()));
+                markChanged(sq);
+            }
         }
     }
 
     /**
      * Cancels the last movement of the last piece moved while updating its movement-tracking variables.
+     *
+     * @param sq1 The square to which the piece has moved.
+     * @param sq2 The square from which the piece has moved.
      */
-    private void moveBackLastPiece() {
-        Position moveFrom = pastMovements.pop(), moveTo = pastMovements.pop();
-        int x1 = moveFrom.getX(), y1 = moveFrom.getY(), x2 = moveTo.getX(), y2 = moveTo.getY();
-        ((ConcretePiece) board[x1][y1]).undoLastMovement();  // updates fields of the last piece moved
-        board[x2][y2] = board[x1][y1];
-        board[x1][y1] = null;
+    private void moveBackLastPiece(int sq1, int sq2) {
+        int piece = pieceAt[sq1].getIndex();
+        removeVisit(piece, sq1);
+        if (registry.getHistoryLength(piece) <= 2)    // the piece goes back to not having moved at all
+            removeVisit(piece, sq2);
+        registry.undoLastMovement(piece);  // updates the position history and distance of the last piece moved
+        pieceAt[sq2] = pieceAt[sq1];
+        pieceAt[sq1] = null;
+        bitBoard.movePiece(sq1, sq2);
+        markChanged(sq1);
+        markChanged(sq2);
     }
 
     @Override
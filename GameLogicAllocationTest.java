@@ -0,0 +1,47 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLogicAllocationTest {
+    private static final int WARMUP_REPLAYS = 500, MEASURED_REPLAYS = 2000;
+
+    @Test
+    void testMoveAndUndoDontAllocate() throws Exception {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeAllocationCounting(threadBean);
+        List<Position> moves = GameLogicTest.parse(Files.readString(new File("src/test/resources/inputs/input1.txt").toPath()));
+        Position[] positions = moves.subList(0, moves.size() - 2).toArray(new Position[0]);  // without the winning move
+        GameLogic gameLogic = new GameLogic();
+
+        replay(gameLogic, positions, WARMUP_REPLAYS);  // lets the JIT compile, and the stacks and histories grow
+        long before = threadBean.getCurrentThreadAllocatedBytes();
+        replay(gameLogic, positions, MEASURED_REPLAYS);
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+
+        long movements = (long) MEASURED_REPLAYS * positions.length / 2;
+        assertTrue(allocated < movements, allocated + " bytes were allocated by " + movements + " movements and undos");
+    }
+
+    /**
+     * Plays the given movements and then undoes them all, a given number of times.
+     */
+    private static void replay(GameLogic gameLogic, Position[] positions, int times) {
+        for (int t = 0; t < times; t++) {
+            for (int i = 0; i < positions.length; i += 2)
+                assertTrue(gameLogic.move(positions[i], positions[i + 1]));
+            for (int i = 0; i < positions.length; i += 2)
+                gameLogic.undoLastMove();
+            assertTrue(gameLogic.isSecondPlayerTurn());
+        }
+    }
+
+    private static void assumeAllocationCounting(com.sun.management.ThreadMXBean threadBean) {
+        org.junit.jupiter.api.Assumptions.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+}
@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLogicChangedSquaresTest {
+
+    @Test
+    void testChangedSquaresKeepACopyOfTheBoardUpToDate() {
+        GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+        Piece[] view = new Piece[BitBoard.SQUARES];
+        int[] changed = new int[BitBoard.SQUARES];
+        assertEquals(BitBoard.SQUARES, gameLogic.takeChangedSquares(changed));
+        apply(gameLogic, view, changed, BitBoard.SQUARES);
+
+        Random random = new Random(16);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int ply = 0; ply < 20000; ply++) {
+            int count = gameLogic.generateLegalMoves(moves);
+            if (count == 0 || random.nextInt(100) < 2)
+                gameLogic.reset();
+            else if (random.nextInt(100) < 20)
+                gameLogic.undoLastMove();
+            else {
+                int move = moves[random.nextInt(count)];
+                gameLogic.move(Position.ofSquare(MoveGenerator.from(move)), Position.ofSquare(MoveGenerator.to(move)));
+            }
+            if (random.nextInt(3) == 0)
+                continue;   // lets changes of several plies coalesce
+            apply(gameLogic, view, changed, gameLogic.takeChangedSquares(changed));
+            for (int sq = 0; sq < BitBoard.SQUARES; sq++)
+                assertSame(gameLogic.getPieceAtPosition(Position.ofSquare(sq)), view[sq], "square " + sq);
+        }
+        gameLogic.takeChangedSquares(changed);
+        assertEquals(0, gameLogic.takeChangedSquares(changed));
+    }
+
+    private static void apply(GameLogic gameLogic, Piece[] view, int[] changed, int count) {
+        for (int i = 0; i < count; i++)
+            view[changed[i]] = gameLogic.getPieceAtPosition(Position.ofSquare(changed[i]));
+    }
+}
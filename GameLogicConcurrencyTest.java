@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLogicConcurrencyTest {
+    private static final int REPLAYS_PER_TASK = 50, RANDOM_GAME_PLIES = 300;
+
+    @Test
+    void testParallelGamesDontInterfere() throws Exception {
+        List<Position> moves = GameLogicTest.parse(Files.readString(new File("src/test/resources/inputs/input1.txt").toPath()));
+        int threads = Runtime.getRuntime().availableProcessors(), tasks = threads * 4;
+
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));    // the printed stats are checked in GameLogicTest
+        try {
+            // Reference results, computed one game at a time
+            long[] expected = new long[tasks];
+            for (int t = 0; t < tasks; t++)
+                expected[t] = playRandomGame(t);
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < tasks; t++) {
+                int seed = t;
+                futures.add(pool.submit(() -> {
+                    // 2 games of the same thread are interleaved, on top of the games of the other threads
+                    GameLogic g1 = new GameLogic(), g2 = new GameLogic();
+                    for (int i = 0; i < REPLAYS_PER_TASK; i++) {
+                        for (int j = 0; j < moves.size() - 1; j += 2) {
+                            assertTrue(g1.move(moves.get(j), moves.get(j + 1)));
+                            assertTrue(g2.move(moves.get(j), moves.get(j + 1)));
+                        }
+                        assertTrue(g1.isGameFinished() && g2.isGameFinished());
+                        g1.reset();
+                        g2.reset();
+                    }
+                    assertEquals(REPLAYS_PER_TASK, g1.getSecondPlayer().getWins());
+                    assertEquals(0, g1.getFirstPlayer().getWins());
+                    assertEquals(expected[seed], playRandomGame(seed));
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * Plays a game of random legal movements (and some undos) determined by a given seed.
+     *
+     * @return A fingerprint of the board at the end of the game.
+     */
+    private static long playRandomGame(long seed) {
+        GameLogic gameLogic = new GameLogic();
+        Random random = new Random(seed);
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        for (int ply = 0; ply < RANDOM_GAME_PLIES && !gameLogic.isGameFinished(); ply++) {
+            if (random.nextInt(8) == 0) {
+                gameLogic.undoLastMove();
+                continue;
+            }
+            int move = buffer[random.nextInt(gameLogic.generateLegalMoves(buffer))];
+            assertTrue(gameLogic.move(Position.ofSquare(MoveGenerator.from(move)),
+                    Position.ofSquare(MoveGenerator.to(move))));
+        }
+        long fingerprint = gameLogic.isSecondPlayerTurn() ? 1 : 0;
+        for (int sq = 0; sq < BitBoard.SQUARES; sq++) {
+            Piece piece = gameLogic.getPieceAtPosition(Position.ofSquare(sq));
+            fingerprint = fingerprint * 31 + (piece == null ? 0 : ((ConcretePiece) piece).getId().hashCode());
+        }
+        return fingerprint;
+    }
+}
@@ -0,0 +1,32 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps every report in memory, in the order they were written.
+ */
+public class InMemoryStatsSink implements StatsSink {
+    private final List<String> reports = new ArrayList<>();
+
+    @Override
+    public synchronized void write(String report) {
+        reports.add(report);
+    }
+
+    /**
+     * @return A copy of the reports written so far.
+     */
+    public synchronized List<String> getReports() {
+        return new ArrayList<>(reports);
+    }
+
+    /**
+     * @return The last report written, or null if there are none.
+     */
+    public synchronized String getLastReport() {
+        return reports.isEmpty() ? null : reports.getLast();
+    }
+
+    public synchronized void clear() {
+        reports.clear();
+    }
+}
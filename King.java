@@ -1,6 +1,11 @@
 public class King extends ConcretePiece {
 
-    public King() {
-        super(GameLogic.P1, GameLogic.P1_King_Unicode, "K"+(((GameLogic.BOARD_SIZE / 2 + 1) * 4)/ 4 + 1));
+    public King(PieceRegistry registry) {
+        super(registry, PieceRegistry.KING);
     }
-}
\ No newline at end of file
+
+    @Override
+    public String getType() {
+        return GameLogic.P1_King_Unicode;
+    }
+}
@@ -0,0 +1,289 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Monte Carlo tree search (UCT) for playing either side of the game, which doesn't need an evaluation function.
+ * Every iteration selects a leaf of the tree by UCB1, expands it, plays a random game (a "playout") from it and counts
+ * the result in every node on the way back up. A movement that ends the game right away is always selected (and
+ * chosen), since random playouts can't tell it apart from movements that merely tend to win.
+ * The tree lives in parallel primitive arrays of a fixed capacity, allocated once: the children of a node are
+ * consecutive, and when the tree is full its leaves are no longer expanded. Playouts run on a bare BitBoard (no
+ * statistics and no journal) with a preallocated movement buffer, so an iteration doesn't allocate anything.
+ * With more than 1 thread, the threads share the tree: selection, expansion and backpropagation are done under the
+ * tree's lock and the playouts are run in parallel. A thread adds a virtual loss to every node it selects until its
+ * playout is counted, so the other threads prefer other paths meanwhile.
+ */
+public class MctsEngine implements AutoCloseable {
+    public static final int MAX_PLAYOUT_PLIES = 500;    // a playout that doesn't end by then is a draw
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int VIRTUAL_LOSS = 3, MAX_TREE_DEPTH = 256, UNEXPANDED = -1;
+    private final int capacity;
+    /* The nodes of the tree by index (the root is 0): the movement that leads to the node, its first child and number of
+     * children (UNEXPANDED before its expansion), its child whose movement ends the game (if there is one), its visits and
+     * its score in half-points (2 for a win, 1 for a draw) from the point of view of the player who made its movement,
+     * and whether its movement ended the game */
+    private final int[] moves, firstChild, childCount, winningChild, visits;
+    private final long[] halfPoints;
+    private final boolean[] terminal;
+    private int nodeCount;
+    private final BitBoard rootBoard = new BitBoard();
+    private int rootSide;
+    private final Worker[] workers;
+    private final ExecutorService helperPool;
+    private final AtomicLong playouts = new AtomicLong();
+    private long maxPlayouts, deadline;
+
+    /**
+     * @param capacity Maximal number of nodes in the tree.
+     * @param threads  Number of search threads (the calling thread is one of them).
+     * @param seed     Seed of the random playouts.
+     */
+    public MctsEngine(int capacity, int threads, long seed) {
+        this.capacity = capacity;
+        moves = new int[capacity];
+        firstChild = new int[capacity];
+        childCount = new int[capacity];
+        winningChild = new int[capacity];
+        visits = new int[capacity];
+        halfPoints = new long[capacity];
+        terminal = new boolean[capacity];
+        workers = new Worker[threads];
+        for (int i = 0; i < threads; i++)
+            workers[i] = new Worker();
+        setSeed(seed);
+        helperPool = threads > 1 ? Executors.newFixedThreadPool(threads - 1) : null;
+    }
+
+    /**
+     * Searches for the best movement in a given position, until either the time budget or the playout budget runs out.
+     *
+     * @param position    The board of the position (isn't changed).
+     * @param sideToMove  The player whose turn it is.
+     * @param timeMillis  Time budget of the search, in milliseconds.
+     * @param maxPlayouts Playout budget of the search.
+     * @return The most visited movement of the root.
+     */
+    public MctsResult search(BitBoard position, int sideToMove, long timeMillis, long maxPlayouts) {
+        long start = System.nanoTime();
+        rootBoard.copyFrom(position);
+        rootSide = sideToMove;
+        nodeCount = 1;
+        resetNode(0, 0);
+        playouts.set(0);
+        this.maxPlayouts = maxPlayouts;
+        deadline = start + timeMillis * 1_000_000L;
+        List<Future<?>> helpers = new ArrayList<>();
+        for (int i = 1; i < workers.length; i++)
+            helpers.add(helperPool.submit(workers[i]::run));
+        workers[0].run();
+        for (Future<?> helper : helpers)
+            join(helper);
+
+        int best = winningChild[0];
+        if (best == UNEXPANDED) {
+            for (int child = firstChild[0]; child < firstChild[0] + childCount[0]; child++) {
+                if (best == UNEXPANDED || visits[child] > visits[best])
+                    best = child;
+            }
+        }
+        if (best == UNEXPANDED)
+            return new MctsResult(0, 0, 0, playouts.get(), nodeCount, System.nanoTime() - start);
+        return new MctsResult(moves[best], visits[best], halfPoints[best] / (2.0 * Math.max(visits[best], 1)),
+                playouts.get(), nodeCount, System.nanoTime() - start);
+    }
+
+    /**
+     * Reseeds the random playouts of the search threads.
+     *
+     * @param seed Given seed.
+     */
+    public final void setSeed(long seed) {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (Worker worker : workers)
+            worker.random = seeds.split();
+    }
+
+    private void resetNode(int node, int move) {
+        moves[node] = move;
+        firstChild[node] = 0;
+        childCount[node] = UNEXPANDED;
+        winningChild[node] = UNEXPANDED;
+        visits[node] = 0;
+        halfPoints[node] = 0;
+        terminal[node] = false;
+    }
+
+    /**
+     * The state of a search thread, allocated once.
+     */
+    private class Worker {
+        private SplittableRandom random;
+        private final BitBoard board = new BitBoard();
+        private final int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        private final int[] path = new int[MAX_TREE_DEPTH + 1], movers = new int[MAX_TREE_DEPTH + 1];
+        private int pathLength;
+
+        void run() {
+            while (playouts.getAndIncrement() < maxPlayouts && System.nanoTime() < deadline) {
+                int side;
+                boolean ended;
+                synchronized (MctsEngine.this) {
+                    side = select();
+                    ended = terminal[path[pathLength - 1]];
+                }
+                int winner = ended ? movers[pathLength - 1] : playout(side);
+                synchronized (MctsEngine.this) {
+                    backpropagate(winner);
+                }
+            }
+            playouts.decrementAndGet(); // the increment that ended the loop isn't a playout
+        }
+
+        /**
+         * Walks from the root to a leaf by UCB1 (adding virtual losses on the way), and expands it if it's not
+         * terminal. Makes the movements of the path on the board.
+         *
+         * @return The player whose turn it is at the end of the path.
+         */
+        private int select() {
+            board.copyFrom(rootBoard);
+            int node = 0, side = rootSide;
+            pathLength = 0;
+            visit(node, BitBoard.NONE);
+            while (childCount[node] > 0 && !terminal[node] && pathLength <= MAX_TREE_DEPTH) {
+                node = bestChild(node);
+                side = makeMove(node, side);
+            }
+            if (childCount[node] == UNEXPANDED && !terminal[node] && pathLength <= MAX_TREE_DEPTH) {
+                int n = MoveGenerator.generateMoves(board, side, buffer);
+                if (n == 0) // a player who can't move loses, as if the last movement ended the game
+                    terminal[node] = true;
+                else if (nodeCount + n <= capacity) {
+                    firstChild[node] = nodeCount;
+                    childCount[node] = n;
+                    for (int i = 0; i < n; i++) {
+                        resetNode(nodeCount + i, buffer[i]);
+                        int from = MoveGenerator.from(buffer[i]), to = MoveGenerator.to(buffer[i]);
+                        int kills = board.makeMove(from, to);
+                        board.unmakeMove(from, to, kills);
+                        if ((kills & BitBoard.GAME_OVER) != 0)
+                            winningChild[node] = nodeCount + i;
+                    }
+                    nodeCount += n;
+                    int child = winningChild[node] != UNEXPANDED ? winningChild[node] : firstChild[node] + random.nextInt(n);
+                    side = makeMove(child, side);
+                }
+            }
+            return side;
+        }
+
+        /**
+         * Makes the movement of a given child node on the board and adds it to the path.
+         *
+         * @return The player whose turn it is after the movement.
+         */
+        private int makeMove(int child, int side) {
+            int kills = board.makeMove(MoveGenerator.from(moves[child]), MoveGenerator.to(moves[child]));
+            if ((kills & BitBoard.GAME_OVER) != 0)
+                terminal[child] = true;
+            visit(child, side);
+            return 1 - side;
+        }
+
+        private void visit(int node, int mover) {
+            path[pathLength] = node;
+            movers[pathLength++] = mover;
+            visits[node] += VIRTUAL_LOSS;
+        }
+
+        /**
+         * @return The child whose movement ends the game if there is one, otherwise the child with the highest UCB1
+         * value (unvisited children first).
+         */
+        private int bestChild(int node) {
+            if (winningChild[node] != UNEXPANDED)
+                return winningChild[node];
+            double logVisits = Math.log(visits[node]);
+            int best = firstChild[node];
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+                if (visits[child] == 0)
+                    return child;
+                double value = halfPoints[child] / (2.0 * visits[child]) + EXPLORATION * Math.sqrt(logVisits / visits[child]);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Plays random legal movements on the board until the game ends or MAX_PLAYOUT_PLIES is reached.
+         *
+         * @param side The player whose turn it is.
+         * @return The winner, or BitBoard.NONE for a draw.
+         */
+        private int playout(int side) {
+            for (int ply = 0; ply < MAX_PLAYOUT_PLIES; ply++) {
+                int n = MoveGenerator.generateMoves(board, side, buffer);
+                if (n == 0)
+                    return 1 - side;
+                int move = buffer[random.nextInt(n)];
+                if ((board.makeMove(MoveGenerator.from(move), MoveGenerator.to(move)) & BitBoard.GAME_OVER) != 0)
+                    return side;
+                side = 1 - side;
+            }
+            return BitBoard.NONE;
+        }
+
+        /**
+         * Counts the result of a playout in the nodes of the path, and removes their virtual losses.
+         */
+        private void backpropagate(int winner) {
+            for (int i = 0; i < pathLength; i++) {
+                int node = path[i];
+                visits[node] += 1 - VIRTUAL_LOSS;
+                halfPoints[node] += winner == BitBoard.NONE ? 1 : winner == movers[i] ? 2 : 0;
+            }
+        }
+    }
+
+    private static void join(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("A search thread failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (helperPool != null)
+            helperPool.shutdownNow();
+    }
+
+    /**
+     * Prints the playouts/sec of searching the starting position for 1, 2, 4... threads, up to the number of cores.
+     *
+     * @param args Time budget in milliseconds (defaults to 2000) and maximal number of threads (defaults to the number
+     *             of cores).
+     */
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        BitBoard start = new GameLogic(StatsSink.NONE).copyBoard();
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+            try (MctsEngine engine = new MctsEngine(1 << 20, threads, 1)) {
+                MctsResult result = engine.search(start, BitBoard.P2, millis, Long.MAX_VALUE);
+                System.out.printf("%2d threads: %s%n", threads, result);
+            }
+        }
+    }
+}
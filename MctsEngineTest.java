@@ -0,0 +1,53 @@
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsEngineTest {
+
+    @Test
+    void testFindsKingEscape() {
+        BitBoard board = new BitBoard();
+        board.putKing(BitBoard.square(0, 5));
+        board.put(BitBoard.square(0, 2), BitBoard.P2);  // blocks the way to (0, 0)
+        board.put(BitBoard.square(6, 6), BitBoard.P2);
+        board.put(BitBoard.square(7, 3), BitBoard.P1);
+        for (int threads = 1; threads <= 3; threads += 2) {
+            try (MctsEngine engine = new MctsEngine(1 << 16, threads, 5)) {
+                MctsResult result = engine.search(board, BitBoard.P1, 10_000, 5000);
+                assertEquals(MoveGenerator.encode(BitBoard.square(0, 5), BitBoard.square(0, 10)), result.move(), result.toString());
+                assertEquals(5000, result.playouts());
+                assertTrue(result.winRate() > 0.9, result.toString());
+            }
+        }
+    }
+
+    @Test
+    void testFullTreeStillPlaysLegalMoves() {
+        GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+        try (MctsEngine engine = new MctsEngine(1000, 2, 7)) {
+            for (int ply = 0; ply < 6; ply++) {
+                int side = gameLogic.isSecondPlayerTurn() ? BitBoard.P2 : BitBoard.P1;
+                MctsResult result = engine.search(gameLogic.copyBoard(), side, 10_000, 300);
+                assertTrue(result.nodes() <= 1000);
+                assertTrue(gameLogic.move(result.from(), result.to()), result.toString());
+            }
+        }
+    }
+
+    @Test
+    void testPlayoutsDontAllocate() {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        org.junit.jupiter.api.Assumptions.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        BitBoard start = new GameLogic(StatsSink.NONE).copyBoard();
+        try (MctsEngine engine = new MctsEngine(1 << 16, 1, 3)) {
+            engine.search(start, BitBoard.P2, 10_000, 2000);  // lets the JIT compile
+            long before = threadBean.getCurrentThreadAllocatedBytes();
+            MctsResult result = engine.search(start, BitBoard.P2, 10_000, 2000);
+            long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+            assertTrue(allocated < 10_000, allocated + " bytes were allocated by " + result.playouts() + " playouts");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * The result of a Monte Carlo tree search (see MctsEngine).
+ *
+ * @param move     The most visited movement of the root (encoded by MoveGenerator), 0 if there are no legal movements.
+ * @param visits   The number of visits of that movement.
+ * @param winRate  The average result of the playouts through that movement (1 for a win, 0.5 for a draw), from the
+ *                 point of view of the player whose turn it was.
+ * @param playouts The number of playouts of the search.
+ * @param nodes    The number of nodes in the tree.
+ * @param nanos    The duration of the search, in nanoseconds.
+ */
+public record MctsResult(int move, int visits, double winRate, long playouts, int nodes, long nanos) {
+
+    public Position from() {
+        return Position.ofSquare(MoveGenerator.from(move));
+    }
+
+    public Position to() {
+        return Position.ofSquare(MoveGenerator.to(move));
+    }
+
+    public long playoutsPerSecond() {
+        return playouts * 1_000_000_000L / Math.max(nanos, 1);
+    }
+
+    @Override
+    public String toString() {
+        return from() + "->" + to() + String.format(" win rate %.3f", winRate) + ", " + visits + " visits, " + playouts
+                + " playouts, " + nodes + " nodes, " + playoutsPerSecond() + " playouts/sec";
+    }
+}
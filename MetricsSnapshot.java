@@ -0,0 +1,55 @@
+import java.util.Map;
+
+/**
+ * The values of the engine's counters at some moment (see EngineMetrics.snapshot), since the process started.
+ *
+ * @param moves           Movements made by GameLogic.move().
+ * @param moveNanos       Total time of those movements, in nanoseconds (including the stats of games they ended).
+ * @param maxMoveNanos    Time of the slowest movement, in nanoseconds.
+ * @param rejectedMoves   Movements rejected by GameLogic.move(), by reason.
+ * @param captures        Pieces killed.
+ * @param undos           Movements undone.
+ * @param maxUndoDepth    The largest number of movements undone in a row.
+ * @param games           Finished games.
+ * @param gamePlies       Total number of movements of the finished games.
+ * @param maxGamePlies    The number of movements of the longest finished game.
+ * @param statsReports    Statistics reports produced and written.
+ * @param statsNanos      Total time of producing and writing them, in nanoseconds.
+ */
+public record MetricsSnapshot(long moves, long moveNanos, long maxMoveNanos, Map<MoveRejection, Long> rejectedMoves,
+                              long captures, long undos, long maxUndoDepth, long games, long gamePlies,
+                              long maxGamePlies, long statsReports, long statsNanos) {
+
+    /**
+     * @return Average time of a movement, in nanoseconds.
+     */
+    public double averageMoveNanos() {
+        return moves == 0 ? 0 : (double) moveNanos / moves;
+    }
+
+    /**
+     * @return Average number of pieces killed by a movement.
+     */
+    public double capturesPerMove() {
+        return moves == 0 ? 0 : (double) captures / moves;
+    }
+
+    /**
+     * @return Average number of movements of a finished game.
+     */
+    public double averageGamePlies() {
+        return games == 0 ? 0 : (double) gamePlies / games;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("""
+                        moves: %d (avg %.0f ns, max %d ns), captures per move: %.3f
+                        rejected moves: %s
+                        undos: %d (max depth %d)
+                        games: %d (avg %.1f plies, max %d)
+                        stats reports: %d (%.3f ms total)
+                        """, moves, averageMoveNanos(), maxMoveNanos, capturesPerMove(), rejectedMoves, undos,
+                maxUndoDepth, games, averageGamePlies(), maxGamePlies, statsReports, statsNanos / 1e6);
+    }
+}
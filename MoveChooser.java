@@ -0,0 +1,100 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A strategy for choosing the movements of a player, for games between computer players (see Tournament).
+ * A chooser may keep state between calls (e.g. a transposition table), so it must only be used by one thread at a time.
+ * The choices of a game depend only on the seed it gets by newGame(), whatever games the chooser played before.
+ */
+@FunctionalInterface
+public interface MoveChooser {
+    /**
+     * Chooses a movement for the player whose turn it is, without changing the game.
+     *
+     * @param gameLogic The game (which isn't finished).
+     * @return The chosen movement (encoded by MoveGenerator), or 0 if there are no legal movements.
+     */
+    int chooseMove(GameLogic gameLogic);
+
+    /**
+     * Starts a new game: forgets the state of the previous games and reseeds the random choices.
+     *
+     * @param seed Seed of the game (mixed with the seed the chooser was created with).
+     */
+    default void newGame(long seed) {
+    }
+
+    /**
+     * @return A seed for a game, which mixes the seed of a chooser with the seed of the game.
+     */
+    private static long mix(long chooserSeed, long gameSeed) {
+        return chooserSeed + gameSeed * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * @param seed Seed of the random choices.
+     * @return A chooser of uniformly random legal movements.
+     */
+    static MoveChooser random(long seed) {
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        return new MoveChooser() {
+            private SplittableRandom random = new SplittableRandom(seed);
+
+            @Override
+            public int chooseMove(GameLogic gameLogic) {
+                int n = gameLogic.generateLegalMoves(buffer);
+                return n == 0 ? 0 : buffer[random.nextInt(n)];
+            }
+
+            @Override
+            public void newGame(long gameSeed) {
+                random = new SplittableRandom(mix(seed, gameSeed));
+            }
+        };
+    }
+
+    /**
+     * @param depth          Depth of the search of every movement.
+     * @param evaluator      The evaluation function of the search.
+     * @param tableMegabytes Size of the transposition table of the search.
+     * @return A chooser of the best movement found by an alpha-beta search to a fixed depth.
+     */
+    static MoveChooser search(int depth, Evaluator evaluator, int tableMegabytes) {
+        TranspositionTable table = new TranspositionTable(tableMegabytes);
+        SearchEngine engine = new SearchEngine(table, evaluator);
+        return new MoveChooser() {
+            @Override
+            public int chooseMove(GameLogic gameLogic) {
+                table.newSearch();
+                int side = gameLogic.isSecondPlayerTurn() ? BitBoard.P2 : BitBoard.P1;
+                return engine.search(gameLogic.copyBoard(), side, TimeUnit.DAYS.toMillis(1), depth).move();
+            }
+
+            @Override
+            public void newGame(long gameSeed) {
+                table.clear();  // the entries of other games would change the choices
+            }
+        };
+    }
+
+    /**
+     * @param playouts Number of playouts of the search of every movement.
+     * @param seed     Seed of the random playouts.
+     * @return A chooser of the most visited movement of a single-threaded Monte Carlo tree search.
+     */
+    static MoveChooser mcts(int playouts, long seed) {
+        MctsEngine engine = new MctsEngine(Math.max(playouts, 1) * 64, 1, seed);
+        return new MoveChooser() {
+            @Override
+            public int chooseMove(GameLogic gameLogic) {
+                int side = gameLogic.isSecondPlayerTurn() ? BitBoard.P2 : BitBoard.P1;
+                return engine.search(gameLogic.copyBoard(), side, TimeUnit.DAYS.toMillis(1), playouts).move();
+            }
+
+            @Override
+            public void newGame(long gameSeed) {
+                engine.setSeed(mix(seed, gameSeed));
+            }
+        };
+    }
+}
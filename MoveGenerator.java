@@ -0,0 +1,74 @@
+/**
+ * Generates all the legal movements of a player on a given board.
+ * A movement is encoded into a single int (see encode()), so that movements can be written into a primitive buffer
+ * supplied by the caller, without allocating anything.
+ */
+public class MoveGenerator {
+    /* Every piece has at most 2 * (BOARD_SIZE - 1) destinations, and a player has at most p2NumOfPieces pieces */
+    public static final int MAX_MOVES = GameLogic.p2NumOfPieces * 2 * (GameLogic.BOARD_SIZE - 1);
+
+    /**
+     * @return A movement from square 'from' to square 'to', encoded into a single int.
+     */
+    public static int encode(int from, int to) {
+        return from << 8 | to;
+    }
+
+    /**
+     * @return The starting square of an encoded movement.
+     */
+    public static int from(int move) {
+        return move >>> 8;
+    }
+
+    /**
+     * @return The end square of an encoded movement.
+     */
+    public static int to(int move) {
+        return move & 0xFF;
+    }
+
+    /**
+     * Writes all the legal movements of a given player into a given buffer. A piece may move any number of empty squares
+     * horizontally or vertically, and only the king may stop on a corner (same as GameLogic.move()).
+     *
+     * @param board  Given board.
+     * @param side   BitBoard.P1 or BitBoard.P2.
+     * @param buffer Given buffer, with at least MAX_MOVES cells.
+     * @return The number of movements written.
+     */
+    public static int generateMoves(BitBoard board, int side, int[] buffer) {
+        int count = 0;
+        long pieces = board.getLo(side);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            count = generatePieceMoves(board, from, buffer, count);
+            pieces &= pieces - 1;
+        }
+        pieces = board.getHi(side);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces) + 64;
+            count = generatePieceMoves(board, from, buffer, count);
+            pieces &= pieces - 1;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the legal movements of the piece on a given square into a given buffer.
+     *
+     * @param board  Given board.
+     * @param from   The square of the piece.
+     * @param buffer Given buffer.
+     * @param count  The index in the buffer from which to write.
+     * @return The index in the buffer after the last movement written.
+     */
+    private static int generatePieceMoves(BitBoard board, int from, int[] buffer, int count) {
+        int x = BitBoard.squareX(from), y = BitBoard.squareY(from);
+        for (int ys = board.rowReach(from); ys != 0; ys &= ys - 1)
+            buffer[count++] = encode(from, BitBoard.square(x, Integer.numberOfTrailingZeros(ys)));
+        for (int xs = board.columnReach(from); xs != 0; xs &= xs - 1)
+            buffer[count++] = encode(from, BitBoard.square(Integer.numberOfTrailingZeros(xs), y));
+        return count;
+    }
+}
@@ -0,0 +1,68 @@
+import java.util.Arrays;
+
+/**
+ * The history of the movements of a game, for undoing them. Every ply is a single int in a growable array: the movement
+ * (encoded by MoveGenerator) in the low 16 bits, and the result of BitBoard.killsBy() for it (the directions in which
+ * pawns were killed, and whether it ended the game) in the bits above them.
+ * The killed pieces' squares aren't stored, since they are the neighbors of the movement's end square in those
+ * directions.
+ */
+public class MoveJournal {
+    private static final int KILLS_SHIFT = 16;
+    private int[] plies = new int[64];
+    private int size;
+
+    /**
+     * Appends a ply to the journal.
+     *
+     * @param from  Starting square of the movement.
+     * @param to    End square of the movement.
+     * @param kills The result of BitBoard.killsBy() for the movement.
+     */
+    public void push(int from, int to, int kills) {
+        if (size == plies.length)
+            plies = Arrays.copyOf(plies, size * 2);
+        plies[size++] = MoveGenerator.encode(from, to) | kills << KILLS_SHIFT;
+    }
+
+    /**
+     * Removes the last ply from the journal (which mustn't be empty).
+     *
+     * @return The removed ply, read with from(), to() and kills().
+     */
+    public int pop() {
+        return plies[--size];
+    }
+
+    /**
+     * @param index Number of the ply (0 for the first).
+     * @return The ply, read with from(), to() and kills().
+     */
+    public int get(int index) {
+        return plies[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public static int from(int ply) {
+        return MoveGenerator.from(ply & 0xFFFF);
+    }
+
+    public static int to(int ply) {
+        return MoveGenerator.to(ply);
+    }
+
+    public static int kills(int ply) {
+        return ply >>> KILLS_SHIFT;
+    }
+}
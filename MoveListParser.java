@@ -0,0 +1,213 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A streaming parser of recorded games, in the format of resources/inputs: a list of "(x, y)" pairs in brackets, where
+ * every 2 consecutive pairs are the start and end positions of a movement. Any number of games may be concatenated.
+ * The bytes are scanned by hand (no regex, no String and no decoding of characters), a buffer at a time, and whatever
+ * is found is handed to a Handler right away, so the memory use doesn't depend on the size of the input.
+ * As with the regex "\((\d+), (\d+)\)", anything between the positions is skipped. Input without any brackets is a
+ * single game. Problems (a malformed position, a missing bracket) are reported to the handler with their byte offset,
+ * and the parsing goes on.
+ */
+public class MoveListParser {
+    public static final int BUFFER_BYTES = 1 << 16;
+    private static final int MAX_COORDINATE = 9999;
+    /* The states of the scan of a position: before it, after "(", in x, after ",", after ", ", in y */
+    private static final int OUTSIDE = 0, OPEN = 1, X = 2, COMMA = 3, SPACE = 4, Y = 5;
+    private final Handler handler;
+    private long offset;    // of the next byte
+    private int state = OUTSIDE, x, y;
+    private long positionOffset;    // of the "(" of the position being scanned
+    private boolean inGame, bracketed, anyGame;
+
+    /**
+     * Receives the games found by a parser, in order.
+     */
+    public interface Handler {
+        /**
+         * Called when a game starts (at its "[", or at its first position if it has no brackets).
+         */
+        default void onGameStart(long offset) {
+        }
+
+        /**
+         * Called for every position of the current game.
+         *
+         * @param offset The offset of the "(" of the position.
+         */
+        void onPosition(int x, int y, long offset);
+
+        /**
+         * Called when the current game ends (at its "]", or at the end of the input).
+         */
+        default void onGameEnd(long offset) {
+        }
+
+        /**
+         * Called for every problem of the input.
+         */
+        default void onError(String message, long offset) {
+        }
+    }
+
+    public MoveListParser(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Parses all the bytes of a channel (until it ends), with a single buffer of BUFFER_BYTES.
+     *
+     * @param channel Given channel, which isn't closed.
+     * @param handler Receives the games.
+     */
+    public static void parse(ReadableByteChannel channel, Handler handler) throws IOException {
+        MoveListParser parser = new MoveListParser(handler);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        while (channel.read(buffer) >= 0) {
+            parser.feed(buffer.flip());
+            buffer.clear();
+        }
+        parser.finish();
+    }
+
+    /**
+     * Parses the remaining bytes of a buffer (e.g. a mapped part of a file), which come right after the bytes parsed
+     * before. A position may be split between buffers.
+     *
+     * @param bytes Given buffer, whose position is moved to its limit.
+     */
+    public void feed(ByteBuffer bytes) {
+        for (int i = bytes.position(), limit = bytes.limit(); i < limit; i++, offset++) {
+            byte b = bytes.get(i);
+            switch (state) {
+                case OPEN, X -> {
+                    if (b >= '0' && b <= '9')
+                        x = digit(x, b);
+                    else
+                        state = state == X && b == ',' ? COMMA : malformed(b);
+                }
+                case COMMA -> state = b == ' ' ? SPACE : malformed(b);
+                case SPACE, Y -> {
+                    if (b >= '0' && b <= '9')
+                        y = digit(y, b);
+                    else if (state == Y && b == ')') {
+                        state = OUTSIDE;
+                        position();
+                    } else
+                        state = malformed(b);
+                }
+                default -> outside(b);
+            }
+            if (state == X && x > MAX_COORDINATE || state == Y && y > MAX_COORDINATE) {
+                handler.onError("coordinate too large", positionOffset);
+                state = OUTSIDE;
+            }
+        }
+        bytes.position(bytes.limit());
+    }
+
+    /**
+     * Scans a byte outside of a position.
+     */
+    private void outside(byte b) {
+        switch (b) {
+            case '(' -> {
+                state = OPEN;
+                x = y = 0;
+                positionOffset = offset;
+            }
+            case '[' -> {
+                if (inGame) {
+                    handler.onError("missing ']'", offset);
+                    endGame();
+                }
+                startGame(true);
+            }
+            case ']' -> {
+                if (bracketed)
+                    endGame();
+                else
+                    handler.onError("']' outside of a game", offset);
+            }
+            default -> {
+            }
+        }
+    }
+
+    private int digit(int value, byte b) {
+        state = state == OPEN ? X : state == SPACE ? Y : state;
+        return value * 10 + (b - '0');
+    }
+
+    /**
+     * Drops the position being scanned, and scans the byte that doesn't fit it from the outside (like a regex would
+     * look for the next match). A position that ends before its first digit isn't considered a position at all.
+     *
+     * @return The new state.
+     */
+    private int malformed(byte b) {
+        if (state != OPEN)
+            handler.onError("malformed position", positionOffset);
+        state = OUTSIDE;
+        outside(b);
+        return state;
+    }
+
+    private void position() {
+        if (!inGame)
+            startGame(false);
+        handler.onPosition(x, y, positionOffset);
+    }
+
+    private void startGame(boolean bracketed) {
+        inGame = anyGame = true;
+        this.bracketed = bracketed;
+        handler.onGameStart(bracketed ? offset : positionOffset);
+    }
+
+    private void endGame() {
+        inGame = bracketed = false;
+        handler.onGameEnd(offset);
+    }
+
+    /**
+     * Ends the input: ends the current game (if there is one). Input without any game is a single empty game.
+     */
+    public void finish() {
+        if (state >= X)
+            handler.onError("malformed position", positionOffset);
+        state = OUTSIDE;
+        if (bracketed)
+            handler.onError("missing ']'", offset);
+        if (!anyGame)
+            handler.onGameStart(0);
+        if (inGame || !anyGame)
+            endGame();
+        anyGame = true;
+    }
+
+    /**
+     * @return The number of bytes parsed so far.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Extracts all the positions of some recorded games.
+     *
+     * @param bytes The content of the recorded games.
+     * @return The positions in the order they appear, every 2 of them (in the same game) being a movement.
+     */
+    public static List<Position> parsePositions(ByteBuffer bytes) {
+        List<Position> positions = new ArrayList<>();
+        MoveListParser parser = new MoveListParser((x, y, offset) -> positions.add(Position.of(x, y)));
+        parser.feed(bytes);
+        parser.finish();
+        return positions;
+    }
+}
@@ -0,0 +1,114 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveListParserTest {
+    private static final File INPUT = new File("src/test/resources/inputs/input1.txt");
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Records everything a parser finds as lines of text.
+     */
+    private static class Recorder implements MoveListParser.Handler {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onGameStart(long offset) {
+            events.add("start " + offset);
+        }
+
+        @Override
+        public void onPosition(int x, int y, long offset) {
+            events.add("(" + x + ", " + y + ") " + offset);
+        }
+
+        @Override
+        public void onGameEnd(long offset) {
+            events.add("end " + offset);
+        }
+
+        @Override
+        public void onError(String message, long offset) {
+            events.add(message + " " + offset);
+        }
+    }
+
+    @Test
+    void testMatchesRegex() throws Exception {
+        String input = Files.readString(INPUT.toPath()) + " junk (1, (2, 3) (4,5) (6, 7";
+        List<Position> expected = new ArrayList<>();
+        Matcher matcher = Pattern.compile("\\((\\d+), (\\d+)\\)").matcher(input);
+        while (matcher.find())
+            expected.add(Position.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+        List<Position> positions = MoveListParser.parsePositions(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(expected.size(), positions.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getX(), positions.get(i).getX());
+            assertEquals(expected.get(i).getY(), positions.get(i).getY());
+        }
+    }
+
+    @Test
+    void testConcatenatedGamesAndErrors() {
+        String input = "[(1, 2), (3, 4)]\n[(5, 6), (7, x)]] [(8, 9)\n[(123456, 1)]";
+        Recorder whole = new Recorder();
+        MoveListParser parser = new MoveListParser(whole);
+        parser.feed(ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII)));
+        parser.finish();
+        assertEquals(List.of("start 0", "(1, 2) 1", "(3, 4) 9", "end 15",
+                "start 17", "(5, 6) 18", "malformed position 26", "end 32", "']' outside of a game 33",
+                "start 35", "(8, 9) 36", "missing ']' 43", "end 43",
+                "start 43", "coordinate too large 44", "end 55"), whole.events);
+        assertEquals(input.length(), parser.getOffset());
+
+        // the same, a byte at a time
+        Recorder split = new Recorder();
+        parser = new MoveListParser(split);
+        for (byte b : input.getBytes(StandardCharsets.US_ASCII))
+            parser.feed(ByteBuffer.wrap(new byte[]{b}));
+        parser.finish();
+        assertEquals(whole.events, split.events);
+    }
+
+    @Test
+    void testInputWithoutGames() {
+        Recorder recorder = new Recorder();
+        MoveListParser parser = new MoveListParser(recorder);
+        parser.feed(ByteBuffer.wrap("nothing here".getBytes(StandardCharsets.US_ASCII)));
+        parser.finish();
+        assertEquals(List.of("start 0", "end 12"), recorder.events);
+    }
+
+    @Test
+    void testBatchReplayOfConcatenatedGames() throws Exception {
+        String game = Files.readString(INPUT.toPath()).strip();
+        Path inputs = Files.createDirectories(dir.resolve("inputs")), outputs = dir.resolve("outputs");
+        Files.writeString(inputs.resolve("input1.txt"), game + "\n" + game + "\n[(0, 0), (0, 1)]\n[(3, 0), (3, 1)");
+        Files.writeString(inputs.resolve("a, \"b\".txt"), "[(3, 0), (3, 1)]");
+        String summary = new BatchReplay(inputs, outputs, 2).run();
+        assertTrue(summary.contains("games: 5"));
+        assertTrue(summary.contains("errors: 2"));
+        String expected = Files.readString(new File("src/test/resources/outputs/output1.txt").toPath()).replace("\r", "");
+        assertEquals(expected, Files.readString(outputs.resolve("output1.txt")).replace("\r", ""));
+        assertEquals(expected, Files.readString(outputs.resolve("output1_2.txt")).replace("\r", ""));
+        List<String> results = Files.readAllLines(outputs.resolve("results.csv"));
+        int offset = 2 * (game.length() + 1);
+        assertTrue(results.contains("input1.txt#3,invalid move 1 at byte " + (offset + 1) + ",0"));
+        assertTrue(results.contains("input1.txt#4,missing ']' at byte " + (offset + 32) + ",1"));
+        assertTrue(results.contains("\"a, \"\"b\"\".txt\",unfinished,1"));
+        assertEquals("\"error: x\ny\"", BatchReplay.csv("error: x\ny"));
+    }
+}
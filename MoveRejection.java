@@ -0,0 +1,11 @@
+/**
+ * The reasons for which GameLogic.move() rejects a movement, in the order in which they are checked.
+ */
+public enum MoveRejection {
+    OUT_OF_BOUNDS,      // one of the positions isn't on the board
+    EMPTY_SOURCE,       // there is no piece to move
+    OCCUPIED_TARGET,    // the destination isn't empty
+    WRONG_TURN,         // the piece belongs to the player who isn't playing now
+    CORNER,             // a pawn may not enter a corner
+    BLOCKED_PATH        // the destination isn't on the same line, or there are pieces in the way
+}
@@ -0,0 +1,234 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A multi-threaded search, in one of 2 modes:
+ * LAZY_SMP - every thread runs its own iterative deepening search (on its own copy of the board), and the threads only
+ * share the transposition table, through which they speed each other up. Half of the helper threads start from depth 2,
+ * so that they don't all search the same positions at the same time.
+ * YOUNG_BROTHERS_WAIT - a single iterative deepening search, in which the children of a node (that is deep enough) are
+ * searched in parallel on a fork-join pool, but only after its first child ("eldest brother") has been searched, so that
+ * they get a good alpha-beta window. Every forked subtree gets its own copy of the board.
+ */
+public class ParallelSearch implements AutoCloseable {
+    public static final int LAZY_SMP = 0, YOUNG_BROTHERS_WAIT = 1;
+    private static final int SPLIT_DEPTH = 3;   // nodes with less remaining depth are searched by a single thread
+    private static final int INFINITY = SearchEngine.WIN + 1;
+    private final int threads;
+    private final TranspositionTable table;
+    private final SearchEngine[] engines;   // engines[0] runs on the calling thread in LAZY_SMP
+    private final AtomicBoolean stopSignal = new AtomicBoolean();
+    private final ExecutorService helperPool;
+    private final ForkJoinPool forkJoinPool;
+    private final ThreadLocal<SearchEngine> subtreeEngines;
+    private final LongAdder subtreeNodes = new LongAdder();
+    private volatile long deadline;
+
+    /**
+     * @param threads   Number of search threads.
+     * @param table     The transposition table shared by all the threads.
+     * @param evaluator The evaluation function of the search.
+     */
+    public ParallelSearch(int threads, TranspositionTable table, Evaluator evaluator) {
+        this.threads = threads;
+        this.table = table;
+        engines = new SearchEngine[threads];
+        for (int i = 0; i < threads; i++) {
+            engines[i] = new SearchEngine(table, evaluator);
+            engines[i].setStopSignal(stopSignal);
+        }
+        helperPool = Executors.newFixedThreadPool(Math.max(threads - 1, 1));
+        forkJoinPool = new ForkJoinPool(threads);
+        subtreeEngines = ThreadLocal.withInitial(() -> new SearchEngine(table, evaluator));
+    }
+
+    /**
+     * Searches for the best movement in a given position.
+     *
+     * @param mode       LAZY_SMP or YOUNG_BROTHERS_WAIT.
+     * @param position   The board of the position (isn't changed).
+     * @param sideToMove The player whose turn it is.
+     * @param timeMillis Time budget of the search, in milliseconds.
+     * @param maxDepth   Maximal depth.
+     * @return The best movement found, with the total nodes of all the threads.
+     */
+    public SearchResult search(int mode, BitBoard position, int sideToMove, long timeMillis, int maxDepth) {
+        table.newSearch();
+        if (mode == LAZY_SMP)
+            return searchLazySmp(position, sideToMove, timeMillis, maxDepth);
+        return searchYoungBrothersWait(position, sideToMove, timeMillis, maxDepth);
+    }
+
+    private SearchResult searchLazySmp(BitBoard position, int side, long timeMillis, int maxDepth) {
+        long start = System.nanoTime();
+        stopSignal.set(false);
+        List<Future<SearchResult>> helpers = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            SearchEngine helper = engines[i];
+            int firstDepth = 1 + (i & 1);
+            helpers.add(helperPool.submit(() ->
+                    helper.search(position, side, timeMillis, SearchEngine.MAX_PLY - 1, firstDepth)));
+        }
+        SearchResult best = engines[0].search(position, side, timeMillis, maxDepth);
+        stopSignal.set(true);
+        long nodes = best.nodes();
+        for (Future<SearchResult> helper : helpers) {
+            SearchResult result = join(helper);
+            nodes += result.nodes();
+            if (result.depth() > best.depth() && result.depth() <= maxDepth && result.move() != 0)
+                best = result;
+        }
+        return new SearchResult(best.move(), best.score(), best.depth(), nodes, System.nanoTime() - start);
+    }
+
+    private SearchResult searchYoungBrothersWait(BitBoard position, int side, long timeMillis, int maxDepth) {
+        long start = System.nanoTime();
+        subtreeNodes.reset();
+        int bestMove = 0, bestScore = 0, depthReached = 0;
+        for (int depth = 1; depth <= Math.min(maxDepth, SearchEngine.MAX_PLY - 1); depth++) {
+            deadline = depth == 1 ? Long.MAX_VALUE : start + timeMillis * 1_000_000L;  // depth 1 is always completed
+            SplitTask root = new SplitTask(new BitBoard(position), side, depth, 0, -INFINITY, INFINITY);
+            int score = forkJoinPool.invoke(root);
+            if (System.nanoTime() >= deadline)     // the iteration might have been cut short
+                break;
+            bestMove = root.bestMove;
+            bestScore = score;
+            depthReached = depth;
+            if (Math.abs(score) >= SearchEngine.WIN - SearchEngine.MAX_PLY)
+                break;
+        }
+        return new SearchResult(bestMove, bestScore, depthReached, subtreeNodes.sum(), System.nanoTime() - start);
+    }
+
+    /**
+     * A node of the YOUNG_BROTHERS_WAIT search, which owns its board.
+     */
+    @SuppressWarnings("serial")   // never serialized
+    private class SplitTask extends RecursiveTask<Integer> {
+        private final BitBoard board;
+        private final int side, depth, ply, beta;
+        private int alpha, bestMove;
+
+        SplitTask(BitBoard board, int side, int depth, int ply, int alpha, int beta) {
+            this.board = board;
+            this.side = side;
+            this.depth = depth;
+            this.ply = ply;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (ply > 0 && System.nanoTime() >= deadline)
+                return 0;
+            if (depth < SPLIT_DEPTH && ply > 0) {
+                SearchEngine engine = subtreeEngines.get();
+                int score = engine.searchSubtree(board, side, depth, ply, alpha, beta, deadline);
+                subtreeNodes.add(engine.getNodes());
+                return score;
+            }
+            subtreeNodes.increment();
+            long key = board.getKey(side);
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int n = MoveGenerator.generateMoves(board, side, moves);
+            if (n == 0)
+                return -(SearchEngine.WIN - ply);
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS)
+                SearchEngine.moveToFront(moves, n, 0, TranspositionTable.move(entry));
+
+            int alphaOrig = alpha;
+            int best = childScore(moves[0], null, 0);   // the eldest brother is searched alone
+            bestMove = moves[0];
+            alpha = Math.max(alpha, best);
+            if (alpha < beta && n > 1) {
+                SplitTask[] brothers = new SplitTask[n - 1];
+                for (int i = 1; i < n; i++)
+                    childScore(moves[i], brothers, i - 1);
+                List<SplitTask> forked = new ArrayList<>();
+                for (SplitTask brother : brothers) {
+                    if (brother != null)
+                        forked.add(brother);
+                }
+                invokeAll(forked);
+                for (int i = 1; i < n; i++) {
+                    int score = brothers[i - 1] == null ? SearchEngine.WIN - ply - 1 : -brothers[i - 1].join();
+                    if (score > best) {
+                        best = score;
+                        bestMove = moves[i];
+                    }
+                }
+            }
+            if (System.nanoTime() < deadline) {
+                int bound = best <= alphaOrig ? TranspositionTable.UPPER_BOUND
+                        : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+                if (Math.abs(best) < SearchEngine.WIN - SearchEngine.MAX_PLY)
+                    table.store(key, bestMove, best, depth, bound);
+            }
+            return best;
+        }
+
+        /**
+         * Prepares the search of the child reached by a given movement. If 'tasks' is null the child is searched right
+         * away, otherwise its task is put into tasks[index] to be forked later (null if the movement ends the game).
+         *
+         * @return The score of the child from this node's point of view, if it was searched or it ends the game.
+         */
+        private int childScore(int move, SplitTask[] tasks, int index) {
+            BitBoard child = new BitBoard(board);
+            int kills = child.makeMove(MoveGenerator.from(move), MoveGenerator.to(move));
+            if ((kills & BitBoard.GAME_OVER) != 0)
+                return SearchEngine.WIN - ply - 1;  // the mover always wins the game with its movement
+            SplitTask task = new SplitTask(child, 1 - side, depth - 1, ply + 1, -beta, -alpha);
+            if (tasks == null)
+                return -task.compute();
+            tasks[index] = task;
+            return 0;
+        }
+    }
+
+    private static SearchResult join(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("A search thread failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        helperPool.shutdownNow();
+        forkJoinPool.shutdownNow();
+    }
+
+    /**
+     * Prints a scaling report of both modes: the time to search the starting position to a fixed depth, nodes/sec and
+     * speedup for 1, 2, 4... threads, up to the number of cores.
+     *
+     * @param args Depth (defaults to 5) and maximal number of threads (defaults to the number of cores).
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        BitBoard start = new GameLogic().copyBoard();
+        String[] modeNames = {"Lazy SMP", "Young brothers wait"};
+        for (int mode = LAZY_SMP; mode <= YOUNG_BROTHERS_WAIT; mode++) {
+            System.out.println(modeNames[mode] + ", depth " + depth + ":");
+            double singleThreadMillis = 0;
+            for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+                try (ParallelSearch search = new ParallelSearch(threads, new TranspositionTable(64), new SimpleEvaluator())) {
+                    SearchResult result = search.search(mode, start, BitBoard.P2, TimeUnit.DAYS.toMillis(1), depth);
+                    double millis = result.nanos() / 1e6;
+                    if (threads == 1)
+                        singleThreadMillis = millis;
+                    System.out.printf("  %2d threads: %8.1f ms, %,12d nodes, %,12d nodes/sec, speedup %.2f%n",
+                            threads, millis, result.nodes(), result.nodesPerSecond(), singleThreadMillis / millis);
+                }
+            }
+        }
+    }
+}
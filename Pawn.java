@@ -1,26 +1,15 @@
 public class Pawn extends ConcretePiece {
-    private int kills;
 
-    public Pawn(Player owner, String type, String id) {
-        super(owner, type, id);
-        kills = 0;
+    public Pawn(PieceRegistry registry, int index) {
+        super(registry, index);
     }
 
-    public int getKills() {
-        return kills;
-    }
-
-    public void addKill() {
-        kills++;
-        if (GameLogic.CONSOLE_PRINT)
-            System.out.println(super.getId() + " total kills: " + kills);
+    @Override
+    public String getType() {
+        return getRegistry().getSide(getIndex()) == BitBoard.P1 ? GameLogic.P1_Pawn_Unicode : GameLogic.P2_Pawn_Unicode;
     }
 
-    /**
-     * Subtracts from 'kills' (may be used when undoLastMove is called).
-     * @param n The amount to decrease from 'kills'.
-     */
-    public void decreaseKillsBy(int n) {
-        kills -= n;
+    public int getKills() {
+        return getRegistry().getKills(getIndex());
     }
 }
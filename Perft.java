@@ -0,0 +1,60 @@
+/**
+ * A perft (performance test) driver, which counts the positions reachable in exactly a given number of movements.
+ * The counts are used for checking the move generator against known values, and the time it takes for measuring
+ * its speed. Movements that finish the game end their branch, so they are only counted at the last depth.
+ */
+public class Perft {
+    private final BitBoard board;
+    private final int side;
+    private final int[][] buffers;  // a movement buffer for each depth, so that counting doesn't allocate
+
+    /**
+     * @param game     The game from whose current position to count.
+     * @param maxDepth The maximal depth that will be counted.
+     */
+    public Perft(GameLogic game, int maxDepth) {
+        board = game.copyBoard();
+        side = game.isSecondPlayerTurn() ? BitBoard.P2 : BitBoard.P1;
+        buffers = new int[maxDepth + 1][MoveGenerator.MAX_MOVES];
+    }
+
+    /**
+     * @param depth Number of movements (at least 1, at most maxDepth).
+     * @return The number of positions reachable in exactly 'depth' movements.
+     */
+    public long perft(int depth) {
+        return count(side, depth);
+    }
+
+    private long count(int side, int depth) {
+        int[] moves = buffers[depth];
+        int n = MoveGenerator.generateMoves(board, side, moves);
+        if (depth == 1)
+            return n;
+        long nodes = 0;
+        for (int i = 0; i < n; i++) {
+            int from = MoveGenerator.from(moves[i]), to = MoveGenerator.to(moves[i]);
+            int kills = board.makeMove(from, to);
+            if ((kills & BitBoard.GAME_OVER) == 0)
+                nodes += count(1 - side, depth - 1);
+            board.unmakeMove(from, to, kills);
+        }
+        return nodes;
+    }
+
+    /**
+     * Prints the perft counts of the starting position for depths 1..N, along with their speed.
+     *
+     * @param args N (defaults to 4).
+     */
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        Perft perft = new Perft(new GameLogic(), maxDepth);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            long start = System.nanoTime();
+            long nodes = perft.perft(depth);
+            long nanos = Math.max(System.nanoTime() - start, 1);
+            System.out.printf("depth %d: %d nodes, %.1f ms, %.0f nodes/sec%n", depth, nodes, nanos / 1e6, nodes * 1e9 / nanos);
+        }
+    }
+}
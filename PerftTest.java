@@ -0,0 +1,62 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+    /* Node counts of the starting position, depths 1..4 */
+    private static final long[] EXPECTED = {116, 6788, 809008, 50842980};
+
+    @Test
+    void testPerftFromStart() {
+        Perft perft = new Perft(new GameLogic(), EXPECTED.length);
+        for (int depth = 1; depth <= EXPECTED.length; depth++)
+            assertEquals(EXPECTED[depth - 1], perft.perft(depth), "depth " + depth);
+    }
+
+    @Test
+    void testGeneratedMovesAreLegal() {
+        GameLogic gameLogic = new GameLogic();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int ply = 0; ply < 40 && !gameLogic.isGameFinished(); ply++) {
+            int n = gameLogic.generateLegalMoves(moves);
+            assertTrue(n > 0);
+            for (int i = 0; i < n; i++) {   // every generated movement is accepted by move()
+                assertTrue(gameLogic.move(Position.ofSquare(MoveGenerator.from(moves[i])),
+                        Position.ofSquare(MoveGenerator.to(moves[i]))));
+                gameLogic.undoLastMove();
+            }
+            int move = moves[(ply * 31) % n];
+            gameLogic.move(Position.ofSquare(MoveGenerator.from(move)), Position.ofSquare(MoveGenerator.to(move)));
+        }
+    }
+
+    @Test
+    void testPathChecksMatchWalkingTheBoard() {
+        GameLogic gameLogic = new GameLogic();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int ply = 0; ply < 60 && !gameLogic.isGameFinished(); ply++) {
+            BitBoard board = gameLogic.copyBoard();
+            for (int from = 0; from < BitBoard.SQUARES; from++) {
+                for (int to = 0; to < BitBoard.SQUARES; to++)
+                    assertEquals(isPathClearByWalking(board, from, to), board.isPathClear(from, to), from + " -> " + to);
+            }
+            int move = moves[(ply * 17) % gameLogic.generateLegalMoves(moves)];
+            gameLogic.move(Position.ofSquare(MoveGenerator.from(move)), Position.ofSquare(MoveGenerator.to(move)));
+        }
+    }
+
+    /**
+     * Checks a path square by square, with the neighbor of each square in the direction of the path.
+     */
+    private static boolean isPathClearByWalking(BitBoard board, int from, int to) {
+        for (int dir = BitBoard.LEFT; dir <= BitBoard.DOWN; dir++) {
+            for (int sq = BitBoard.neighbor(from, dir); sq != BitBoard.NONE; sq = BitBoard.neighbor(sq, dir)) {
+                if (sq == to)
+                    return true;
+                if (board.isOccupied(sq))
+                    break;
+            }
+        }
+        return false;
+    }
+}
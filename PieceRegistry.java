@@ -0,0 +1,146 @@
+import java.util.Arrays;
+
+/**
+ * The pieces of a game and their statistics, kept in parallel primitive arrays indexed by piece: Player 1's pieces by
+ * number (1 to p1NumOfPieces, the king included), then Player 2's. ConcretePiece and its subclasses are views of the
+ * pieces of a registry.
+ * A position history is kept as the squares (as in BitBoard) the piece stood on, starting with the square it first
+ * moved from, and is empty as long as the piece hasn't moved.
+ */
+public class PieceRegistry {
+    public static final int PIECES = GameLogic.p1NumOfPieces + GameLogic.p2NumOfPieces;
+    public static final int KING_NUMBER = GameLogic.p1NumOfPieces / 2 + 1;
+    public static final int KING = KING_NUMBER - 1;  // the index of the king
+    private static final int INITIAL_HISTORY = 8;
+    private final Player[] players = new Player[2]; // by side (BitBoard.P1, BitBoard.P2)
+    private final byte[] sides = new byte[PIECES], numbers = new byte[PIECES];
+    private final int[] kills = new int[PIECES], distances = new int[PIECES], historyLengths = new int[PIECES];
+    private final short[][] histories = new short[PIECES][INITIAL_HISTORY];
+
+    /**
+     * @param p1 Player 1 (the defender), who owns the first p1NumOfPieces pieces.
+     * @param p2 Player 2 (the attacker), who owns the rest.
+     */
+    public PieceRegistry(Player p1, Player p2) {
+        players[BitBoard.P1] = p1;
+        players[BitBoard.P2] = p2;
+        for (int i = 0; i < PIECES; i++) {
+            sides[i] = (byte) (i < GameLogic.p1NumOfPieces ? BitBoard.P1 : BitBoard.P2);
+            numbers[i] = (byte) (i < GameLogic.p1NumOfPieces ? i + 1 : i - GameLogic.p1NumOfPieces + 1);
+        }
+    }
+
+    /**
+     * @param side   BitBoard.P1 or BitBoard.P2.
+     * @param number The number of a piece of the player (from 1).
+     * @return The index of the piece.
+     */
+    public static int indexOf(int side, int number) {
+        return (side == BitBoard.P1 ? 0 : GameLogic.p1NumOfPieces) + number - 1;
+    }
+
+    /**
+     * Forgets the statistics of all the pieces, for a new game.
+     */
+    public void reset() {
+        Arrays.fill(kills, 0);
+        Arrays.fill(distances, 0);
+        Arrays.fill(historyLengths, 0);
+    }
+
+    public int getSide(int piece) {
+        return sides[piece];
+    }
+
+    public Player getOwner(int piece) {
+        return players[sides[piece]];
+    }
+
+    public int getNumber(int piece) {
+        return numbers[piece];
+    }
+
+    public boolean isKing(int piece) {
+        return piece == KING;
+    }
+
+    /**
+     * @return The id of a piece, as shown in the stats: its kind (K for the king, D for Player 1's pawns and A for
+     * Player 2's) followed by its number.
+     */
+    public String getId(int piece) {
+        char kind = isKing(piece) ? 'K' : sides[piece] == BitBoard.P1 ? 'D' : 'A';
+        return kind + Integer.toString(numbers[piece]);
+    }
+
+    public int getKills(int piece) {
+        return kills[piece];
+    }
+
+    /**
+     * Adds to the kill count of a piece (or subtracts from it, when movements are undone).
+     */
+    public void addKills(int piece, int n) {
+        kills[piece] += n;
+    }
+
+    public int getDistance(int piece) {
+        return distances[piece];
+    }
+
+    public int getHistoryLength(int piece) {
+        return historyLengths[piece];
+    }
+
+    /**
+     * @return The square at a given index of the position history of a piece.
+     */
+    public int getHistorySquare(int piece, int index) {
+        return histories[piece][index];
+    }
+
+    /**
+     * Registers a movement of a piece: Updates its position history and distance.
+     *
+     * @param piece Given piece.
+     * @param from  Square before movement.
+     * @param to    Square after movement.
+     */
+    public void addMovement(int piece, int from, int to) {
+        if (historyLengths[piece] == 0)
+            append(piece, from);
+        append(piece, to);
+        distances[piece] += distance(from, to);
+    }
+
+    /**
+     * Un-registers the last movement of a piece: Updates its position history and distance.
+     */
+    public void undoLastMovement(int piece) {
+        int length = historyLengths[piece];
+        if (length <= 2) {
+            historyLengths[piece] = 0;
+            distances[piece] = 0;
+        } else {
+            short[] history = histories[piece];
+            distances[piece] -= distance(history[length - 2], history[length - 1]);
+            historyLengths[piece] = length - 1;
+        }
+    }
+
+    private void append(int piece, int sq) {
+        short[] history = histories[piece];
+        int length = historyLengths[piece];
+        if (length == history.length)
+            histories[piece] = history = Arrays.copyOf(history, length * 2);
+        history[length] = (short) sq;
+        historyLengths[piece] = length + 1;
+    }
+
+    /**
+     * @return The Manhattan-distance between 2 given squares.
+     */
+    private static int distance(int sq1, int sq2) {
+        return Math.abs(BitBoard.squareX(sq1) - BitBoard.squareX(sq2)) + Math.abs(BitBoard.squareY(sq1) - BitBoard.squareY(sq2));
+    }
+}
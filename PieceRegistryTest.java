@@ -0,0 +1,40 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PieceRegistryTest {
+
+    @Test
+    void testLayoutAndIds() {
+        ConcretePlayer p1 = new ConcretePlayer(true), p2 = new ConcretePlayer(false);
+        PieceRegistry registry = new PieceRegistry(p1, p2);
+        assertEquals("D1", registry.getId(PieceRegistry.indexOf(BitBoard.P1, 1)));
+        assertEquals("K7", registry.getId(PieceRegistry.KING));
+        assertEquals("A24", registry.getId(PieceRegistry.indexOf(BitBoard.P2, 24)));
+        assertSame(p2, registry.getOwner(PieceRegistry.PIECES - 1));
+        assertSame(p1, new King(registry).getOwner());
+    }
+
+    @Test
+    void testHistoryGrowsAndShrinks() {
+        PieceRegistry registry = new PieceRegistry(new ConcretePlayer(true), new ConcretePlayer(false));
+        Pawn pawn = new Pawn(registry, 3);
+        int sq = BitBoard.square(0, 0);
+        for (int i = 1; i <= 40; i++) {   // back and forth along the top row
+            int next = BitBoard.square(0, i % 2 == 1 ? 10 : 0);
+            registry.addMovement(3, sq, next);
+            sq = next;
+        }
+        assertEquals(41, registry.getHistoryLength(3));
+        assertEquals(400, pawn.getTotalDistance());
+        registry.undoLastMovement(3);
+        assertEquals(40, registry.getHistoryLength(3));
+        assertEquals(390, pawn.getTotalDistance());
+        assertEquals(new Position(0, 10), pawn.getPositionHistory().getLast());
+        registry.reset();
+        assertEquals(List.of(), pawn.getPositionHistory());
+        assertEquals(0, pawn.getTotalDistance());
+    }
+}
@@ -1,11 +1,41 @@
 public class Position {
+    private static final int SIZE = GameLogic.BOARD_SIZE;
+    private static final Position[] CACHE = new Position[SIZE * SIZE];  // the canonical position of every square
     private final int x, y;
 
+    static {
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++)
+                CACHE[x * SIZE + y] = new Position(x, y);
+        }
+    }
+
     public Position(int XPosition, int YPosition) {
         x = XPosition;
         y = YPosition;
     }
 
+    /**
+     * Returns the position (x, y) without allocating, if it's on the board.
+     *
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return The canonical instance of the position if it's on the board, a new position otherwise.
+     */
+    public static Position of(int x, int y) {
+        if (x < 0 || y < 0 || x >= SIZE || y >= SIZE)
+            return new Position(x, y);
+        return CACHE[x * SIZE + y];
+    }
+
+    /**
+     * @param sq Number of a square on the board (as in BitBoard).
+     * @return The canonical instance of the position of the given square.
+     */
+    public static Position ofSquare(int sq) {
+        return CACHE[sq];
+    }
+
     public int getY() {
         return y;
     }
@@ -38,6 +68,16 @@ public class Position {
         return Math.abs(pos.x - x) + Math.abs(pos.y - y);
     }
 
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Position pos && pos.x == x && pos.y == y;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * x + y;
+    }
+
     public String toString() {
         return "(" + x + ", " + y + ")";
     }
@@ -0,0 +1,233 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A negamax search with alpha-beta pruning and iterative deepening, for playing either side of the game.
+ * The search makes and unmakes movements on its own copy of the board (with the same rules as GameLogic.move()), and
+ * all its buffers are allocated once, so searching a node doesn't allocate anything.
+ * Movements are ordered by the transposition table's movement first, then the 2 killer movements of the ply.
+ */
+public class SearchEngine {
+    public static final int WIN = 1_000_000, MAX_PLY = 128;
+    private static final int INFINITY = WIN + 1, TIME_CHECK_INTERVAL = 1024;
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private final int[][] moveBuffers = new int[MAX_PLY][MoveGenerator.MAX_MOVES];  // a movement buffer for each ply
+    private final int[][] killers = new int[MAX_PLY][2];  // movements that caused a cutoff, by ply
+    private final BitBoard board = new BitBoard();
+    private long nodes, deadline;
+    private volatile boolean stopped;
+    private AtomicBoolean stopSignal = new AtomicBoolean();  // may be shared by engines that search together
+    private int iterationBestMove;
+
+    /**
+     * @param table     A transposition table, which may be shared with other engines.
+     * @param evaluator The evaluation function for the leaves of the search.
+     */
+    public SearchEngine(TranspositionTable table, Evaluator evaluator) {
+        this.table = table;
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Searches for the best movement in a given position, deepening the search by 1 ply at a time until the time budget
+     * or the maximal depth is reached. Always completes depth 1.
+     *
+     * @param position   The board of the position (isn't changed).
+     * @param sideToMove The player whose turn it is.
+     * @param timeMillis Time budget of the search, in milliseconds.
+     * @param maxDepth   Maximal depth (at most MAX_PLY - 1).
+     * @return The best movement of the last completed iteration.
+     */
+    public SearchResult search(BitBoard position, int sideToMove, long timeMillis, int maxDepth) {
+        return search(position, sideToMove, timeMillis, maxDepth, 1);
+    }
+
+    /**
+     * Same as search(position, sideToMove, timeMillis, maxDepth), but starts deepening from a given depth (which is
+     * always completed), so that parallel searches don't all search the same depths at the same time.
+     */
+    public SearchResult search(BitBoard position, int sideToMove, long timeMillis, int maxDepth, int firstDepth) {
+        long start = System.nanoTime();
+        board.copyFrom(position);
+        nodes = 0;
+        stopped = false;
+        deadline = Long.MAX_VALUE;
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = 0;
+            plyKillers[1] = 0;
+        }
+        int bestMove = 0, bestScore = 0, depthReached = 0;
+        maxDepth = Math.min(maxDepth, MAX_PLY - 1);
+        for (int depth = firstDepth; depth <= maxDepth; depth++) {
+            iterationBestMove = 0;
+            int score = negamax(depth, 0, -INFINITY, INFINITY, sideToMove);
+            if (stopped)
+                break;
+            bestMove = iterationBestMove;
+            bestScore = score;
+            depthReached = depth;
+            if (Math.abs(score) >= WIN - MAX_PLY)   // a forced win or loss was found, deeper searches won't change it
+                break;
+            deadline = start + timeMillis * 1_000_000L;
+            if (System.nanoTime() >= deadline)
+                break;
+        }
+        return new SearchResult(bestMove, bestScore, depthReached, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Searches a given position to a fixed depth with a given window, until a given deadline. Used for searching the
+     * subtrees of a parallel search.
+     *
+     * @param position The board of the position (isn't changed).
+     * @param side     The player whose turn it is.
+     * @param depth    Depth of the search.
+     * @param ply      Distance of the position from the root of the whole search (at least 1).
+     * @param alpha    Lower bound of the interesting scores.
+     * @param beta     Upper bound of the interesting scores.
+     * @param deadline Value of System.nanoTime() at which the search stops.
+     * @return The score of the position from the point of view of 'side', meaningless if the search was stopped.
+     */
+    public int searchSubtree(BitBoard position, int side, int depth, int ply, int alpha, int beta, long deadline) {
+        board.copyFrom(position);
+        nodes = 0;
+        stopped = false;
+        this.deadline = deadline;
+        if (System.nanoTime() >= deadline)
+            return 0;
+        return negamax(depth, ply, alpha, beta, side);
+    }
+
+    /**
+     * Stops the current search (may be called from another thread). The search returns the result of its last
+     * completed iteration.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Makes this engine stop (within a few microseconds) whenever a given flag is set, along with all the other engines
+     * that share it.
+     *
+     * @param stopSignal Given flag.
+     */
+    public void setStopSignal(AtomicBoolean stopSignal) {
+        this.stopSignal = stopSignal;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Searches a position to a given depth.
+     *
+     * @param depth Remaining depth.
+     * @param ply   Distance from the root.
+     * @param alpha Lower bound of the interesting scores.
+     * @param beta  Upper bound of the interesting scores.
+     * @param side  The player whose turn it is.
+     * @return The score of the position, from the point of view of 'side'.
+     */
+    private int negamax(int depth, int ply, int alpha, int beta, int side) {
+        nodes++;
+        if ((nodes & (TIME_CHECK_INTERVAL - 1)) == 0 && (System.nanoTime() >= deadline || stopSignal.get()))
+            stopped = true;
+        if (stopped)
+            return 0;
+
+        long key = board.getKey(side);
+        int ttMove = 0;
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.MISS) {
+            ttMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTableScore(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER_BOUND && score >= beta
+                        || bound == TranspositionTable.UPPER_BOUND && score <= alpha)
+                    return score;
+            }
+        }
+        if (depth == 0)
+            return evaluator.evaluate(board, side);
+
+        int[] moves = moveBuffers[ply];
+        int n = MoveGenerator.generateMoves(board, side, moves);
+        if (n == 0)
+            return -(WIN - ply);    // a player who can't move loses
+        int ordered = moveToFront(moves, n, 0, ttMove);
+        ordered = moveToFront(moves, n, ordered, killers[ply][0]);
+        moveToFront(moves, n, ordered, killers[ply][1]);
+
+        int alphaOrig = alpha, best = -INFINITY, bestMove = 0;
+        for (int i = 0; i < n; i++) {
+            int move = moves[i], from = MoveGenerator.from(move), to = MoveGenerator.to(move);
+            int kills = board.makeMove(from, to);
+            int score;
+            if ((kills & BitBoard.GAME_OVER) != 0)
+                score = WIN - ply - 1;  // the mover always wins the game with its movement
+            else
+                score = -negamax(depth - 1, ply + 1, -beta, -alpha, 1 - side);
+            board.unmakeMove(from, to, kills);
+            if (stopped)
+                return 0;
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0)
+                    iterationBestMove = move;
+            }
+            if (best > alpha)
+                alpha = best;
+            if (alpha >= beta) {
+                if (move != killers[ply][0]) {
+                    killers[ply][1] = killers[ply][0];
+                    killers[ply][0] = move;
+                }
+                break;
+            }
+        }
+        int bound = best <= alphaOrig ? TranspositionTable.UPPER_BOUND
+                : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        table.store(key, bestMove, toTableScore(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Moves a given movement (if it's in the buffer) to a given index of the buffer, shifting the movements between them.
+     *
+     * @return The index after the given movement if it was found, the given index otherwise.
+     */
+    public static int moveToFront(int[] moves, int n, int index, int move) {
+        if (move == 0)
+            return index;
+        for (int i = index; i < n; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, index, moves, index + 1, i - index);
+                moves[index] = move;
+                return index + 1;
+            }
+        }
+        return index;
+    }
+
+    /* Win scores are stored relative to the position rather than the root, so that they stay correct in transpositions */
+    private static int toTableScore(int score, int ply) {
+        if (score >= WIN - MAX_PLY)
+            return score + ply;
+        if (score <= -(WIN - MAX_PLY))
+            return score - ply;
+        return score;
+    }
+
+    private static int fromTableScore(int score, int ply) {
+        if (score >= WIN - MAX_PLY)
+            return score - ply;
+        if (score <= -(WIN - MAX_PLY))
+            return score + ply;
+        return score;
+    }
+}
@@ -0,0 +1,49 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchEngineTest {
+    @Test
+    void testFindsKingEscape() {
+        BitBoard board = new BitBoard();
+        board.putKing(BitBoard.square(0, 5));
+        board.put(BitBoard.square(0, 2), BitBoard.P2);  // blocks the way to (0, 0)
+        board.put(BitBoard.square(6, 6), BitBoard.P2);
+        board.put(BitBoard.square(7, 3), BitBoard.P1);
+        SearchEngine engine = new SearchEngine(new TranspositionTable(1), new SimpleEvaluator());
+        SearchResult result = engine.search(board, BitBoard.P1, 1000, 6);
+        assertEquals(MoveGenerator.encode(BitBoard.square(0, 5), BitBoard.square(0, 10)), result.move());
+        assertEquals(SearchEngine.WIN - 1, result.score());
+    }
+
+    @Test
+    void testParallelSearchFindsKingEscape() {
+        BitBoard board = new BitBoard();
+        board.putKing(BitBoard.square(4, 10));
+        board.put(BitBoard.square(2, 10), BitBoard.P2);  // blocks the way to (0, 10)
+        board.put(BitBoard.square(5, 5), BitBoard.P2);
+        board.put(BitBoard.square(8, 2), BitBoard.P1);
+        int escape = MoveGenerator.encode(BitBoard.square(4, 10), BitBoard.square(10, 10));
+        try (ParallelSearch search = new ParallelSearch(3, new TranspositionTable(4), new SimpleEvaluator())) {
+            for (int mode = ParallelSearch.LAZY_SMP; mode <= ParallelSearch.YOUNG_BROTHERS_WAIT; mode++) {
+                SearchResult result = search.search(mode, board, BitBoard.P1, 1000, 5);
+                assertEquals(escape, result.move());
+                assertEquals(SearchEngine.WIN - 1, result.score());
+            }
+        }
+    }
+
+    @Test
+    void testComputerPlaysLegalMoves() {
+        GameLogic gameLogic = new GameLogic();
+        ComputerPlayer attacker = new ComputerPlayer(gameLogic, new SimpleEvaluator(), 4);
+        ComputerPlayer defender = new ComputerPlayer(gameLogic, new SimpleEvaluator(), 4);
+        for (int ply = 0; ply < 10 && !gameLogic.isGameFinished(); ply++) {
+            boolean wasP2Turn = gameLogic.isSecondPlayerTurn();
+            SearchResult result = (wasP2Turn ? attacker : defender).play(20);
+            assertNotNull(result);
+            assertTrue(result.depth() >= 1);
+            assertNotEquals(wasP2Turn, gameLogic.isSecondPlayerTurn()); // the movement was accepted by move()
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * The result of a search: the best movement found, its score and the statistics of the search.
+ *
+ * @param move  The best movement (encoded by MoveGenerator), 0 if there are no legal movements.
+ * @param score The score of the best movement, from the point of view of the player whose turn it was.
+ * @param depth The depth of the last completed iteration of the search.
+ * @param nodes The number of positions visited.
+ * @param nanos The duration of the search, in nanoseconds.
+ */
+public record SearchResult(int move, int score, int depth, long nodes, long nanos) {
+
+    public Position from() {
+        int sq = MoveGenerator.from(move);
+        return Position.ofSquare(sq);
+    }
+
+    public Position to() {
+        int sq = MoveGenerator.to(move);
+        return Position.ofSquare(sq);
+    }
+
+    public long nodesPerSecond() {
+        return nodes * 1_000_000_000L / Math.max(nanos, 1);
+    }
+
+    @Override
+    public String toString() {
+        return from() + "->" + to() + " score " + score + ", depth " + depth + ", " + nodes + " nodes, "
+                + nodesPerSecond() + " nodes/sec";
+    }
+}
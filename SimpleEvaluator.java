@@ -0,0 +1,26 @@
+/**
+ * A simple evaluation function: material (weighted, since the defender has about half the pieces of the attacker),
+ * the king's distance from the nearest corner, and how free the king is to move.
+ */
+public class SimpleEvaluator implements Evaluator {
+    private static final int P1_PAWN = 150, P2_PAWN = 100, CORNER_DISTANCE = 25, KING_FREEDOM = 20, KING_THREAT = 60;
+
+    @Override
+    public int evaluate(BitBoard board, int sideToMove) {
+        int p1Pawns = Long.bitCount(board.getLo(BitBoard.P1)) + Long.bitCount(board.getHi(BitBoard.P1)) - 1;
+        int p2Pawns = Long.bitCount(board.getLo(BitBoard.P2)) + Long.bitCount(board.getHi(BitBoard.P2));
+        int score = p1Pawns * P1_PAWN - p2Pawns * P2_PAWN;  // from Player 1's point of view
+
+        int king = board.getKingSquare(), x = king / BitBoard.SIZE, y = king % BitBoard.SIZE;
+        int last = BitBoard.SIZE - 1;
+        score -= CORNER_DISTANCE * (Math.min(x, last - x) + Math.min(y, last - y));
+        for (int dir = BitBoard.LEFT; dir <= BitBoard.DOWN; dir++) {
+            int neighbor = BitBoard.neighbor(king, dir);
+            if (neighbor != BitBoard.NONE && !board.isOccupied(neighbor))
+                score += KING_FREEDOM;
+            else if (board.isHostile(king, dir, BitBoard.P1))
+                score -= KING_THREAT;
+        }
+        return sideToMove == BitBoard.P1 ? score : -score;
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Aggregates the statistics of many games, on any number of threads: the heatmap of stats4 (the number of different
+ * pieces that stepped on each square), the squares on which pieces were killed, and the distributions of the kills of
+ * the pawns and the distances of the pieces.
+ * The counters are striped: every game is added to a shard that no other thread uses meanwhile (taken from a pool of
+ * free shards, so there are about as many shards as games added at the same time, also with virtual threads), and the
+ * shards are merged only by snapshot().
+ */
+public class StatsAggregator {
+    public static final int KILL_BUCKETS = 16, DISTANCE_BUCKETS = 256;  // the last bucket also counts larger values
+    private final Queue<Shard> freeShards = new ConcurrentLinkedQueue<>(), allShards = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The counters of some of the games, which are changed by a single thread at a time.
+     */
+    private static class Shard {
+        long games, p1Wins, p2Wins, plies;
+        final long[] visitors = new long[BitBoard.SQUARES], captures = new long[BitBoard.SQUARES],
+                kills = new long[KILL_BUCKETS], distances = new long[DISTANCE_BUCKETS];
+    }
+
+    /**
+     * Adds the statistics of a game in its current state (usually when it's finished). The game shouldn't change
+     * meanwhile.
+     *
+     * @param game Given game.
+     */
+    public void add(GameLogic game) {
+        Shard shard = freeShards.poll();
+        if (shard == null) {
+            shard = new Shard();
+            allShards.add(shard);
+        }
+        addTo(shard, game);
+        freeShards.add(shard);
+    }
+
+    private static void addTo(Shard shard, GameLogic game) {
+        shard.games++;
+        if (game.isGameFinished()) {
+            if (game.isSecondPlayerTurn())  // the winner made the last movement
+                shard.p1Wins++;
+            else
+                shard.p2Wins++;
+        }
+        int plies = game.plyCount();
+        shard.plies += plies;
+        for (int sq = 0; sq < BitBoard.SQUARES; sq++)
+            shard.visitors[sq] += game.visitorsOf(sq);
+        for (int i = 0; i < plies; i++) {
+            int ply = game.ply(i), kills = MoveJournal.kills(ply);
+            for (int dir = BitBoard.LEFT; dir <= BitBoard.DOWN; dir++) {
+                if ((kills & 1 << dir) != 0)
+                    shard.captures[BitBoard.neighbor(MoveJournal.to(ply), dir)]++;
+            }
+        }
+        PieceRegistry registry = game.pieceRegistry();
+        for (int piece = 0; piece < PieceRegistry.PIECES; piece++) {
+            if (!registry.isKing(piece))
+                shard.kills[Math.min(registry.getKills(piece), KILL_BUCKETS - 1)]++;
+            shard.distances[Math.min(registry.getDistance(piece), DISTANCE_BUCKETS - 1)]++;
+        }
+    }
+
+    /**
+     * Merges the shards. Includes every game whose add() returned before this was called (on this thread, or on a
+     * thread that was joined since), and maybe some of the games added meanwhile.
+     *
+     * @return The totals of the added games.
+     */
+    public AggregateStats snapshot() {
+        Shard total = new Shard();
+        for (Shard shard : allShards) {
+            total.games += shard.games;
+            total.p1Wins += shard.p1Wins;
+            total.p2Wins += shard.p2Wins;
+            total.plies += shard.plies;
+            addAll(total.visitors, shard.visitors);
+            addAll(total.captures, shard.captures);
+            addAll(total.kills, shard.kills);
+            addAll(total.distances, shard.distances);
+        }
+        return new AggregateStats(total.games, total.p1Wins, total.p2Wins, total.plies, total.visitors, total.captures,
+                total.kills, total.distances);
+    }
+
+    private static void addAll(long[] total, long[] values) {
+        for (int i = 0; i < total.length; i++)
+            total[i] += values[i];
+    }
+}
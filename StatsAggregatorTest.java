@@ -0,0 +1,69 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsAggregatorTest {
+    private static final File INPUT = new File("src/test/resources/inputs/input1.txt");
+    private static final int GAMES = 1000;
+
+    @Test
+    void testParallelGamesAddUp() throws Exception {
+        List<Position> moves = GameLogicTest.parse(Files.readString(INPUT.toPath()));
+        GameLogic single = play(moves);
+        StatsAggregator aggregator = new StatsAggregator();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int i = 0; i < GAMES; i++)
+                executor.submit(() -> aggregator.add(play(moves)));
+        }
+        AggregateStats stats = aggregator.snapshot();
+
+        assertEquals(GAMES, stats.games());
+        assertEquals(GAMES, stats.p2Wins());
+        assertEquals((long) GAMES * single.plyCount(), stats.plies());
+        int kills = 0;
+        for (int sq = 0; sq < BitBoard.SQUARES; sq++) {
+            assertEquals((long) GAMES * single.visitorsOf(sq), stats.visitors()[sq]);
+            if (single.getPieceAtPosition(Position.ofSquare(sq)) instanceof Pawn pawn)
+                kills += pawn.getKills();
+        }
+        assertEquals((long) GAMES * kills, Arrays.stream(stats.captures()).sum());
+        assertEquals((long) GAMES * (PieceRegistry.PIECES - 1), Arrays.stream(stats.kills()).sum());
+        assertEquals((long) GAMES * PieceRegistry.PIECES, Arrays.stream(stats.distances()).sum());
+    }
+
+    @Test
+    void testCsvExport() throws Exception {
+        StatsAggregator aggregator = new StatsAggregator();
+        aggregator.add(play(GameLogicTest.parse(Files.readString(INPUT.toPath()))));
+        Path directory = Files.createTempDirectory("aggregate");
+        try {
+            aggregator.snapshot().writeCsv(directory);
+            List<String> squares = Files.readAllLines(directory.resolve("squares.csv"));
+            assertEquals("x,y,visitors,captures", squares.getFirst());
+            assertEquals(BitBoard.SQUARES + 1, squares.size());
+            assertTrue(Files.readAllLines(directory.resolve("summary.csv")).get(1).startsWith("1,0,1,0,"));
+            assertEquals(StatsAggregator.KILL_BUCKETS + 1, Files.readAllLines(directory.resolve("kills.csv")).size());
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList())
+                    Files.delete(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static GameLogic play(List<Position> moves) {
+        GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+        for (int i = 0; i < moves.size() - 1; i += 2)
+            assertTrue(gameLogic.move(moves.get(i), moves.get(i + 1)));
+        return gameLogic;
+    }
+}
@@ -0,0 +1,131 @@
+import java.util.Arrays;
+
+/**
+ * The statistics of a finished game (according to the assignment), taken from the game at the moment it ended, so that
+ * the text of the report can be produced later and on any thread, even after the game has been reset.
+ * The text is produced by the methods stats1, stats2, stats3, stats4, which order the pieces by sorting primitive keys:
+ * every key holds the compared values in its high bits and the index of the piece in its lowest byte.
+ */
+public class StatsReport {
+    private static final String PARTITION = "***************************************************************************";
+    private static final String NEW_LINE = System.lineSeparator();
+    private final String[] ids;   // by piece index (see PieceRegistry)
+    private final int[] numbers, kills, distances;
+    private final boolean[] ofWinner;
+    private final short[][] histories;
+    private final int[] visitors;
+    private final Player winner;
+    private final int kingIndex;
+
+    /**
+     * @param registry The pieces of the game (isn't kept).
+     * @param visitors The number of different pieces that stepped on each square (isn't kept).
+     * @param winner   The winner of the game.
+     */
+    public StatsReport(PieceRegistry registry, int[] visitors, Player winner) {
+        int n = PieceRegistry.PIECES;
+        ids = new String[n];
+        numbers = new int[n];
+        kills = new int[n];
+        distances = new int[n];
+        ofWinner = new boolean[n];
+        histories = new short[n][];
+        for (int i = 0; i < n; i++) {
+            ids[i] = registry.getId(i);
+            numbers[i] = registry.getNumber(i);
+            kills[i] = registry.getKills(i);
+            distances[i] = registry.getDistance(i);
+            ofWinner[i] = registry.getOwner(i) == winner;
+            histories[i] = new short[registry.getHistoryLength(i)];
+            for (int j = 0; j < histories[i].length; j++)
+                histories[i][j] = (short) registry.getHistorySquare(i, j);
+        }
+        kingIndex = PieceRegistry.KING;
+        this.visitors = visitors.clone();
+        this.winner = winner;
+    }
+
+    /**
+     * @return The text of the report, with the same lines that used to be printed to the console.
+     */
+    public String render() {
+        return stats1() + PARTITION + stats2() + NEW_LINE + PARTITION + stats3() + NEW_LINE + PARTITION + stats4()
+                + NEW_LINE + PARTITION + NEW_LINE;
+    }
+
+    private String stats1() {
+        /* The pieces of each player by ascending number of positions, then by ascending number; the winner's first */
+        StringBuilder s1 = new StringBuilder(), s2 = new StringBuilder();
+        long[] keys = new long[ids.length];
+        for (int i = 0; i < ids.length; i++)
+            keys[i] = (long) histories[i].length << 16 | (long) numbers[i] << 8 | i;
+        Arrays.sort(keys);
+        for (long key : keys) {
+            int i = (int) (key & 0xFF);
+            if (histories[i].length > 0)
+                appendHistory(i < GameLogic.p1NumOfPieces ? s1 : s2, i);
+        }
+        if (winner.isPlayerOne())
+            return s1.toString() + s2;
+        else
+            return s2 + s1.toString();
+    }
+
+    private void appendHistory(StringBuilder s, int piece) {
+        s.append(ids[piece]).append(": [");
+        for (int j = 0; j < histories[piece].length; j++) {
+            if (j > 0)
+                s.append(", ");
+            s.append(Position.ofSquare(histories[piece][j]));
+        }
+        s.append("]\n");
+    }
+
+    private String stats2() {
+        StringBuilder ans = new StringBuilder();
+        for (long key : sortDescending(kills)) {
+            int i = (int) (key & 0xFF);
+            if (i != kingIndex && kills[i] > 0)
+                ans.append('\n').append(ids[i]).append(": ").append(kills[i]).append(" kills");
+        }
+        return ans.toString();
+    }
+
+    private String stats3() {
+        StringBuilder ans = new StringBuilder();
+        for (long key : sortDescending(distances)) {
+            int i = (int) (key & 0xFF);
+            if (distances[i] > 0)
+                ans.append('\n').append(ids[i]).append(": ").append(distances[i]).append(" squares");
+        }
+        return ans.toString();
+    }
+
+    private String stats4() {
+        /* Squares by descending number of different pieces that stepped on them, then by ascending square number (which
+         * is by x, then by y) */
+        StringBuilder ans = new StringBuilder();
+        for (int count = ids.length; count > 1; count--) {
+            for (int sq = 0; sq < visitors.length; sq++) {
+                if (visitors[sq] == count)
+                    ans.append('\n').append(Position.ofSquare(sq)).append(count).append(" pieces");
+            }
+        }
+        return ans.toString();
+    }
+
+    /**
+     * Orders the pieces for stats2 and stats3 (according to the assignment): by descending value, then by ascending
+     * number, then the winner's piece first.
+     *
+     * @param values The compared values, by piece index (non-negative).
+     * @return The sorted keys of the pieces.
+     */
+    private long[] sortDescending(int[] values) {
+        long[] keys = new long[ids.length];
+        for (int i = 0; i < ids.length; i++)
+            keys[i] = -(long) values[i] << 24 | (long) numbers[i] << 16 | (ofWinner[i] ? 0 : 1) << 8 | i;
+        Arrays.sort(keys);
+        return keys;
+    }
+}
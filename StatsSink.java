@@ -0,0 +1,20 @@
+/**
+ * A destination for the statistics reports of finished games (see StatsReport).
+ * Every report is handed over as a single string, so a sink writes it in one operation instead of many small prints.
+ * Implementations: StreamStatsSink, InMemoryStatsSink, FileStatsSink and NONE.
+ */
+@FunctionalInterface
+public interface StatsSink {
+    /**
+     * Discards the reports. A game with this sink doesn't produce its report at all.
+     */
+    StatsSink NONE = report -> {
+    };
+
+    /**
+     * Writes the report of a finished game. May be called from any thread.
+     *
+     * @param report The text of the report.
+     */
+    void write(String report);
+}
@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsSinkTest {
+    private static final File INPUT = new File("src/test/resources/inputs/input1.txt");
+    private static final File OUTPUT = new File("src/test/resources/outputs/output1.txt");
+
+    @Test
+    void testInMemorySink() throws Exception {
+        InMemoryStatsSink sink = new InMemoryStatsSink();
+        GameLogic gameLogic = new GameLogic(sink);
+        play(gameLogic);
+        play(gameLogic);
+        assertEquals(List.of(expectedReport(), expectedReport()), normalize(sink.getReports()));
+    }
+
+    @Test
+    void testAsyncReportSurvivesReset() throws Exception {
+        InMemoryStatsSink sink = new InMemoryStatsSink();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        GameLogic gameLogic = new GameLogic(sink, executor);
+        play(gameLogic);
+        // the report is a snapshot, so a new game right away doesn't change it
+        List<Position> moves = GameLogicTest.parse(Files.readString(INPUT.toPath()));
+        gameLogic.reset();
+        assertTrue(gameLogic.move(moves.get(0), moves.get(1)));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(List.of(expectedReport()), normalize(sink.getReports()));
+    }
+
+    @Test
+    void testFileSinkAppends() throws Exception {
+        Path file = Files.createTempFile("stats", ".txt");
+        try {
+            GameLogic gameLogic = new GameLogic(new FileStatsSink(file));
+            play(gameLogic);
+            play(gameLogic);
+            assertEquals(expectedReport() + expectedReport(), Files.readString(file).replace("\r", ""));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testNoneSinkStillCountsWins() throws Exception {
+        GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+        play(gameLogic);
+        assertTrue(gameLogic.isGameFinished());
+        assertEquals(1, gameLogic.getSecondPlayer().getWins());
+    }
+
+    /**
+     * Plays the game of input1 from the start.
+     */
+    private static void play(GameLogic gameLogic) throws Exception {
+        gameLogic.reset();
+        List<Position> moves = GameLogicTest.parse(Files.readString(INPUT.toPath()));
+        for (int i = 0; i < moves.size() - 1; i += 2)
+            assertTrue(gameLogic.move(moves.get(i), moves.get(i + 1)));
+    }
+
+    private static String expectedReport() throws Exception {
+        return Files.readString(OUTPUT.toPath()).replace("\r", "");
+    }
+
+    private static List<String> normalize(List<String> reports) {
+        return reports.stream().map(report -> report.replace("\r", "")).toList();
+    }
+}
@@ -0,0 +1,24 @@
+import java.io.PrintStream;
+
+/**
+ * Writes every report to a stream in a single print, and flushes it.
+ */
+public class StreamStatsSink implements StatsSink {
+    private final PrintStream out;
+
+    /**
+     * @param out Given stream, or null for System.out at the time of writing (so that it can be redirected).
+     */
+    public StreamStatsSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(String report) {
+        PrintStream stream = out != null ? out : System.out;
+        synchronized (stream) {
+            stream.print(report);
+            stream.flush();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Plays games between 2 move-choosers, A and B, on a work-stealing (fork-join) pool, every game in its own GameLogic.
+ * Games are played in pairs: both games of a pair start with the same random opening, and A plays the attacker in the
+ * first game of the pair and the defender in the second.
+ * Every thread creates its own choosers (with the given suppliers), and the results are counted by LongAdders, so the
+ * games don't contend on anything. The choosers are reseeded from the number of every game (see MoveChooser.newGame()),
+ * so the results don't depend on which thread plays which game.
+ */
+public class Tournament {
+    private final ThreadLocal<MoveChooser> choosersA, choosersB;
+    private final int openingPlies, maxPlies;
+    private final LongAdder aWins = new LongAdder(), bWins = new LongAdder(), draws = new LongAdder(),
+            plies = new LongAdder();
+
+    /**
+     * @param chooserA     Creates the move-chooser of A (once for every thread).
+     * @param chooserB     Creates the move-chooser of B (once for every thread).
+     * @param openingPlies Number of random movements at the start of every game.
+     * @param maxPlies     Number of movements after which a game is a draw.
+     */
+    public Tournament(Supplier<MoveChooser> chooserA, Supplier<MoveChooser> chooserB, int openingPlies, int maxPlies) {
+        choosersA = ThreadLocal.withInitial(chooserA);
+        choosersB = ThreadLocal.withInitial(chooserB);
+        this.openingPlies = openingPlies;
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Plays a given number of games.
+     *
+     * @param games Given number (at least 0).
+     * @param pool  The pool on which the games are played.
+     * @return The results of these games.
+     */
+    public TournamentResult run(int games, ForkJoinPool pool) {
+        if (games < 0)
+            throw new IllegalArgumentException("Negative number of games: " + games);
+        aWins.reset();
+        bWins.reset();
+        draws.reset();
+        plies.reset();
+        long start = System.nanoTime();
+        pool.invoke(new GameRange(0, games));
+        return new TournamentResult(games, aWins.sum(), bWins.sum(), draws.sum(), plies.sum(), System.nanoTime() - start);
+    }
+
+    /**
+     * The games numbered first..last-1, which are split between the threads of the pool.
+     */
+    @SuppressWarnings("serial")   // never serialized
+    private class GameRange extends RecursiveAction {
+        private final int first, last;
+
+        GameRange(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first <= 1) {
+                if (first < last)
+                    playGame(first);
+                return;
+            }
+            int middle = (first + last) >>> 1;
+            invokeAll(new GameRange(first, middle), new GameRange(middle, last));
+        }
+    }
+
+    /**
+     * Plays a single game and counts its result.
+     *
+     * @param game Number of the game, which determines its opening and the sides of A and B.
+     */
+    private void playGame(int game) {
+        GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+        boolean aIsAttacker = game % 2 == 0;
+        MoveChooser opening = MoveChooser.random(game / 2), a = choosersA.get(), b = choosersB.get();
+        a.newGame(2L * game);   // so the game doesn't depend on the games the thread played before
+        b.newGame(2L * game + 1);
+        int ply = 0;
+        boolean aMovedLast = false;
+        while (!gameLogic.isGameFinished() && ply < maxPlies) {
+            boolean aToMove = gameLogic.isSecondPlayerTurn() == aIsAttacker;
+            int move = (ply < openingPlies ? opening : aToMove ? a : b).chooseMove(gameLogic);
+            if (move == 0) {    // a player who can't move loses
+                aMovedLast = !aToMove;
+                break;
+            }
+            gameLogic.move(Position.ofSquare(MoveGenerator.from(move)), Position.ofSquare(MoveGenerator.to(move)));
+            aMovedLast = aToMove;
+            ply++;
+        }
+        plies.add(ply);
+        if (ply == maxPlies && !gameLogic.isGameFinished())
+            draws.increment();
+        else
+            (aMovedLast ? aWins : bWins).increment();
+    }
+
+    /**
+     * Plays a tournament and prints its results.
+     *
+     * @param args Number of games (defaults to 1000), then the choosers of A and B (defaults to "search:2" and
+     *             "random"): "random", "search:DEPTH" or "mcts:PLAYOUTS". Optionally the number of threads (defaults to the number of
+     *             cores).
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        String a = args.length > 1 ? args[1] : "search:2", b = args.length > 2 ? args[2] : "random";
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        Tournament tournament = new Tournament(chooser(a), chooser(b), 4, 400);
+        try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+            System.out.println("A = " + a + ", B = " + b + ", " + threads + " threads");
+            System.out.print(tournament.run(games, pool));
+        }
+    }
+
+    private static Supplier<MoveChooser> chooser(String spec) {
+        if (spec.equals("random")) {
+            SplittableRandom seeds = new SplittableRandom();
+            return () -> {
+                synchronized (seeds) {
+                    return MoveChooser.random(seeds.nextLong());
+                }
+            };
+        }
+        if (spec.startsWith("search:")) {
+            int depth = Integer.parseInt(spec.substring("search:".length()));
+            return () -> MoveChooser.search(depth, new SimpleEvaluator(), 16);
+        }
+        if (spec.startsWith("mcts:")) {
+            int playouts = Integer.parseInt(spec.substring("mcts:".length()));
+            SplittableRandom seeds = new SplittableRandom();
+            return () -> {
+                synchronized (seeds) {
+                    return MoveChooser.mcts(playouts, seeds.nextLong());
+                }
+            };
+        }
+        throw new IllegalArgumentException("Unknown move-chooser: " + spec);
+    }
+}
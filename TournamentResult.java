@@ -0,0 +1,54 @@
+/**
+ * The results of a tournament between 2 move-choosers, A and B, from A's point of view.
+ *
+ * @param games  The number of games played.
+ * @param aWins  The number of games A won.
+ * @param bWins  The number of games B won.
+ * @param draws  The number of games that reached the maximal number of movements.
+ * @param plies  The total number of movements in all the games.
+ * @param nanos  The duration of the tournament, in nanoseconds.
+ */
+public record TournamentResult(long games, long aWins, long bWins, long draws, long plies, long nanos) {
+    private static final double Z_95 = 1.959964;   // the 97.5th percentile of the standard normal distribution
+
+    /**
+     * @return A's score: its wins plus half of the draws, divided by the number of games.
+     */
+    public double score() {
+        return (aWins + draws / 2.0) / Math.max(games, 1);
+    }
+
+    /**
+     * @return Half the width of the 95% confidence interval of score(), by the normal approximation of the per-game
+     * scores (1, 1/2 or 0).
+     */
+    public double marginOfError() {
+        if (games < 2)
+            return Double.NaN;
+        double p = score();
+        double variance = (aWins * (1 - p) * (1 - p) + draws * (0.5 - p) * (0.5 - p) + bWins * p * p) / (games - 1);
+        return Z_95 * Math.sqrt(variance / games);
+    }
+
+    /**
+     * @return The Elo rating difference of A over B that matches score() (infinite if either side won every game).
+     */
+    public double eloDifference() {
+        return -400 * Math.log10(1 / score() - 1);
+    }
+
+    public double gamesPerSecond() {
+        return games * 1e9 / Math.max(nanos, 1);
+    }
+
+    public double averagePlies() {
+        return (double) plies / Math.max(games, 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games: %d (A won %d, B won %d, %d draws)%nA's score: %.1f%% +- %.1f%% (95%% confidence), "
+                        + "Elo difference %+.0f%ngames/sec: %.1f%naverage plies: %.1f%n", games, aWins, bWins, draws,
+                100 * score(), 100 * marginOfError(), eloDifference(), gamesPerSecond(), averagePlies());
+    }
+}
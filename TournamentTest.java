@@ -0,0 +1,46 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+
+    @Test
+    void testResultsAddUp() {
+        Tournament tournament = new Tournament(() -> MoveChooser.random(1), () -> MoveChooser.random(2), 0, 1000);
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            TournamentResult result = tournament.run(200, pool);
+            assertEquals(200, result.games());
+            assertEquals(result.games(), result.aWins() + result.bWins() + result.draws());
+            assertTrue(result.averagePlies() > 0 && result.averagePlies() <= 1000);
+            assertTrue(result.marginOfError() > 0 && result.marginOfError() < 0.5);
+        }
+    }
+
+    @Test
+    void testNoGames() {
+        Tournament tournament = new Tournament(() -> MoveChooser.random(1), () -> MoveChooser.random(2), 0, 1000);
+        try (ForkJoinPool pool = new ForkJoinPool(2)) {
+            assertEquals(0, tournament.run(0, pool).games());
+            assertThrows(IllegalArgumentException.class, () -> tournament.run(-1, pool));
+        }
+    }
+
+    @Test
+    void testSearchBeatsRandom() {
+        Tournament tournament = new Tournament(() -> MoveChooser.search(2, new SimpleEvaluator(), 1),
+                () -> MoveChooser.random(3), 2, 300);
+        TournamentResult result;
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            result = tournament.run(20, pool);
+            assertTrue(result.score() - result.marginOfError() > 0.5, result.toString());
+        }
+        try (ForkJoinPool pool = new ForkJoinPool(1)) {   // the same games, whichever thread plays them
+            TournamentResult again = tournament.run(20, pool);
+            assertEquals(result.aWins(), again.aWins());
+            assertEquals(result.bWins(), again.bWins());
+            assertEquals(result.plies(), again.plies());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import java.util.Arrays;
+
+/**
+ * A fixed-size transposition table, which stores search results by the Zobrist key of their position, so that positions
+ * reached by different move orders aren't analyzed again.
+ * Entries are packed into 2 primitive arrays and the table may be shared by search threads without locks: every entry is
+ * stored as (key ^ data, data), so an entry torn by a concurrent write fails the key check of probe() and is treated as
+ * a miss (the lockless hashing scheme of Hyatt and Mann).
+ * An entry is replaced by an entry of the same position or of the same or greater depth, or by any entry if it was
+ * stored by an older search.
+ */
+public class TranspositionTable {
+    public static final int EXACT = 0, LOWER_BOUND = 1, UPPER_BOUND = 2;
+    public static final long MISS = 0;  // returned by probe(), never a stored data
+    private static final int ENTRY_BYTES = 16;
+    /* Layout of the data word: score (32 bits), move (16), depth (8), bound (2), generation (5), valid (1) */
+    private static final int MOVE_SHIFT = 32, DEPTH_SHIFT = 48, BOUND_SHIFT = 56, GENERATION_SHIFT = 58;
+    private static final long VALID = 1L << 63;
+    private final long[] keys, data;
+    private final int mask;
+    private volatile int generation;
+
+    /**
+     * @param megabytes Size of the table, rounded down to a power-of-2 number of entries.
+     */
+    public TranspositionTable(int megabytes) {
+        int entries = Integer.highestOneBit(Math.max(1, (int) Math.min((long) megabytes * 1024 * 1024 / ENTRY_BYTES, 1 << 30)));
+        keys = new long[entries];
+        data = new long[entries];
+        mask = entries - 1;
+    }
+
+    /**
+     * Marks the start of a new search, so that the entries of the previous searches can be replaced regardless of depth.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 31;
+    }
+
+    /**
+     * Removes all the entries of the table. Must not be called while the table is used by other threads.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    /**
+     * Looks up the entry of a given position.
+     *
+     * @param key Zobrist key of the position.
+     * @return The data of the entry (read with score(), move(), depth() and bound()), or MISS if there is no such entry.
+     */
+    public long probe(long key) {
+        int index = (int) key & mask;
+        long d = data[index];
+        if (d != MISS && (keys[index] ^ d) == key)
+            return d;
+        return MISS;
+    }
+
+    /**
+     * Stores the result of a search of a given position, unless its slot holds a deeper result of the current search.
+     *
+     * @param key   Zobrist key of the position.
+     * @param move  Best movement found (encoded by MoveGenerator), 0 if none.
+     * @param score Score of the position.
+     * @param depth Depth of the search (0-255).
+     * @param bound EXACT, LOWER_BOUND or UPPER_BOUND.
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = (int) key & mask, gen = generation;
+        long old = data[index];
+        if (old != MISS && generation(old) == gen && depth(old) > depth && (keys[index] ^ old) != key)
+            return;
+        long d = (score & 0xFFFFFFFFL) | (long) (move & 0xFFFF) << MOVE_SHIFT | (long) (depth & 0xFF) << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT | (long) gen << GENERATION_SHIFT | VALID;
+        keys[index] = key ^ d;
+        data[index] = d;
+    }
+
+    public static int score(long data) {
+        return (int) data;
+    }
+
+    public static int move(long data) {
+        return (int) (data >>> MOVE_SHIFT) & 0xFFFF;
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 3;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & 31;
+    }
+
+    /**
+     * @return The number of entries the table can hold.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+}
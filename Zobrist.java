@@ -0,0 +1,54 @@
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing of positions: the key of a position is the XOR of the keys of all its pieces (by
+ * kind and square), and of SIDE_TO_MOVE if it's Player 2's turn. Since XOR is its own inverse, the key can be updated
+ * incrementally whenever a piece is put or removed.
+ */
+public class Zobrist {
+    public static final long SIDE_TO_MOVE;
+    private static final long[][] PAWN_KEYS = new long[2][BitBoard.SQUARES];   // by BitBoard.P1/P2 and square
+    private static final long[] KING_KEYS = new long[BitBoard.SQUARES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_1CEB_A55L);   // fixed, so that keys are reproducible
+        for (int sq = 0; sq < BitBoard.SQUARES; sq++) {
+            PAWN_KEYS[BitBoard.P1][sq] = random.nextLong();
+            PAWN_KEYS[BitBoard.P2][sq] = random.nextLong();
+            KING_KEYS[sq] = random.nextLong();
+        }
+        SIDE_TO_MOVE = random.nextLong();
+    }
+
+    /**
+     * @return The key of a pawn of a given player on a given square.
+     */
+    public static long pawnKey(int side, int sq) {
+        return PAWN_KEYS[side][sq];
+    }
+
+    /**
+     * @return The key of the king on a given square.
+     */
+    public static long kingKey(int sq) {
+        return KING_KEYS[sq];
+    }
+
+    /**
+     * Computes the key of a board from scratch (rather than incrementally).
+     *
+     * @param board Given board.
+     * @return The XOR of the keys of all the pieces on the board (not including the side to move).
+     */
+    public static long compute(BitBoard board) {
+        long key = 0;
+        for (int sq = 0; sq < BitBoard.SQUARES; sq++) {
+            int side = board.sideAt(sq);
+            if (sq == board.getKingSquare())
+                key ^= kingKey(sq);
+            else if (side != BitBoard.NONE)
+                key ^= pawnKey(side, sq);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZobristTest {
+    @Test
+    void testIncrementalKeyMatchesRecomputedKey() {
+        GameLogic gameLogic = new GameLogic();
+        Random random = new Random(7);
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        for (int ply = 0; ply < 500 && !gameLogic.isGameFinished(); ply++) {
+            if (random.nextInt(5) == 0)
+                gameLogic.undoLastMove();
+            else {
+                int move = buffer[random.nextInt(gameLogic.generateLegalMoves(buffer))];
+                gameLogic.move(Position.ofSquare(MoveGenerator.from(move)), Position.ofSquare(MoveGenerator.to(move)));
+            }
+            long sideKey = gameLogic.isSecondPlayerTurn() ? Zobrist.SIDE_TO_MOVE : 0;
+            assertEquals(Zobrist.compute(gameLogic.copyBoard()) ^ sideKey, gameLogic.getZobristKey());
+        }
+    }
+
+    @Test
+    void testTranspositionsHaveTheSameKey() {
+        GameLogic g1 = new GameLogic(), g2 = new GameLogic();
+        long startKey = g1.getZobristKey();
+        assertTrue(g1.move(new Position(0, 3), new Position(0, 1)));
+        assertTrue(g1.move(new Position(3, 5), new Position(3, 2)));
+        assertTrue(g1.move(new Position(0, 7), new Position(0, 9)));
+        assertTrue(g2.move(new Position(0, 7), new Position(0, 9)));
+        assertTrue(g2.move(new Position(3, 5), new Position(3, 2)));
+        assertTrue(g2.move(new Position(0, 3), new Position(0, 1)));
+        assertEquals(g1.getZobristKey(), g2.getZobristKey());
+        assertNotEquals(startKey, g1.getZobristKey());
+        for (int i = 0; i < 3; i++)
+            g1.undoLastMove();
+        assertEquals(startKey, g1.getZobristKey());
+    }
+
+    @Test
+    void testTranspositionTableReplacesByDepth() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEFL, collidingKey = key + table.capacity();  // same slot, different position
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+
+        table.store(key, MoveGenerator.encode(3, 5), -42, 6, TranspositionTable.LOWER_BOUND);
+        long data = table.probe(key);
+        assertEquals(-42, TranspositionTable.score(data));
+        assertEquals(MoveGenerator.encode(3, 5), TranspositionTable.move(data));
+        assertEquals(6, TranspositionTable.depth(data));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(data));
+
+        table.store(collidingKey, 0, 1, 5, TranspositionTable.EXACT);  // shallower, so it doesn't replace
+        assertEquals(TranspositionTable.MISS, table.probe(collidingKey));
+        assertNotEquals(TranspositionTable.MISS, table.probe(key));
+
+        table.newSearch();
+        table.store(collidingKey, 0, 1, 5, TranspositionTable.EXACT);  // the old entry is from a previous search
+        assertEquals(1, TranspositionTable.score(table.probe(collidingKey)));
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+    }
+}
@@ -0,0 +1,137 @@
+import bench.Workload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The workloads of the benchmarks. JMH can't generate benchmarks in the default package, so the benchmarks (in package
+ * 'bench') get their work from here, where the engine's classes (and their package-private members) are visible.
+ * Every workload is prepared when it's created, so run() only does the measured work.
+ */
+public class GameWorkloads {
+    private static final int CAPTURE_POSITIONS = 32, MIN_KILLS = 2;
+
+    /**
+     * Plays the game of input1 (without its winning movement) and then undoes all of its movements.
+     */
+    public static Workload moveAndUndo() {
+        List<Position> moves = input1();
+        Position[] positions = moves.subList(0, moves.size() - 2).toArray(new Position[0]);
+        GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+        return () -> {
+            for (int i = 0; i < positions.length; i += 2)
+                gameLogic.move(positions[i], positions[i + 1]);
+            for (int i = 0; i < positions.length; i += 2)
+                gameLogic.undoLastMove();
+            return gameLogic.getZobristKey();
+        };
+    }
+
+    /**
+     * Makes and undoes movements that kill at least MIN_KILLS pawns each, in CAPTURE_POSITIONS different positions
+     * (found by seeded random games), which is the worst case of checkKillerSurroundings().
+     */
+    public static Workload captures() {
+        List<GameLogic> games = new ArrayList<>();
+        List<int[]> captures = new ArrayList<>();
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        Random random = new Random(1);
+        while (games.size() < CAPTURE_POSITIONS) {
+            GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+            for (int ply = 0; ply < 200 && games.size() < CAPTURE_POSITIONS && !gameLogic.isGameFinished(); ply++) {
+                int n = gameLogic.generateLegalMoves(buffer), capture = findCapture(gameLogic, buffer, n);
+                if (capture != 0) {
+                    games.add(gameLogic);
+                    captures.add(new int[]{MoveGenerator.from(capture), MoveGenerator.to(capture)});
+                    break;
+                }
+                play(gameLogic, buffer[random.nextInt(n)]);
+            }
+        }
+        GameLogic[] positions = games.toArray(new GameLogic[0]);
+        Position[] from = new Position[positions.length], to = new Position[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            from[i] = Position.ofSquare(captures.get(i)[0]);
+            to[i] = Position.ofSquare(captures.get(i)[1]);
+        }
+        return () -> {
+            long sum = 0;
+            for (int i = 0; i < positions.length; i++) {
+                positions[i].move(from[i], to[i]);
+                sum += positions[i].getZobristKey();
+                positions[i].undoLastMove();
+            }
+            return sum;
+        };
+    }
+
+    /**
+     * Resets a game (which recreates its board and pieces).
+     */
+    public static Workload reset() {
+        GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+        return () -> {
+            gameLogic.reset();
+            return gameLogic.getZobristKey();
+        };
+    }
+
+    /**
+     * Plays the whole game of input1, from a reset to the king's capture (without producing the stats).
+     */
+    public static Workload replayInput1() {
+        Position[] positions = input1().toArray(new Position[0]);
+        GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+        return () -> {
+            gameLogic.reset();
+            for (int i = 0; i + 1 < positions.length; i += 2)
+                gameLogic.move(positions[i], positions[i + 1]);
+            return gameLogic.getZobristKey();
+        };
+    }
+
+    /**
+     * Produces the text of the stats report of input1's game, as printStats() does when the game ends.
+     */
+    public static Workload statsReport() {
+        Position[] positions = input1().toArray(new Position[0]);
+        GameLogic gameLogic = new GameLogic(StatsSink.NONE);
+        for (int i = 0; i + 1 < positions.length; i += 2)
+            gameLogic.move(positions[i], positions[i + 1]);
+        return () -> gameLogic.statsReport(gameLogic.getSecondPlayer()).render().length();
+    }
+
+    /**
+     * @return A legal movement (from the given ones) that kills at least MIN_KILLS pawns, or 0 if there's none.
+     */
+    private static int findCapture(GameLogic gameLogic, int[] moves, int n) {
+        BitBoard board = gameLogic.copyBoard();
+        for (int i = 0; i < n; i++) {
+            int from = MoveGenerator.from(moves[i]), to = MoveGenerator.to(moves[i]);
+            int kills = board.makeMove(from, to);
+            board.unmakeMove(from, to, kills);
+            if ((kills & BitBoard.GAME_OVER) == 0 && Integer.bitCount(kills) >= MIN_KILLS)
+                return moves[i];
+        }
+        return 0;
+    }
+
+    private static void play(GameLogic gameLogic, int move) {
+        gameLogic.move(Position.ofSquare(MoveGenerator.from(move)), Position.ofSquare(MoveGenerator.to(move)));
+    }
+
+    private static List<Position> input1() {
+        try (InputStream in = GameWorkloads.class.getResourceAsStream("/inputs/input1.txt")) {
+            if (in == null)
+                throw new IllegalStateException("inputs/input1.txt isn't on the classpath");
+            return MoveListParser.parsePositions(ByteBuffer.wrap(in.readAllBytes()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the costs of playing a game (see GameWorkloads for what each one does).
+ * Run with: java -jar benchmarks/target/benchmarks.jar (which adds the gc profiler, for the allocation rates).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameLogicBenchmark {
+    private Workload moveAndUndo, captures, reset, replayInput1, statsReport;
+
+    @Setup
+    public void setup() {
+        moveAndUndo = Workload.create("moveAndUndo");
+        captures = Workload.create("captures");
+        reset = Workload.create("reset");
+        replayInput1 = Workload.create("replayInput1");
+        statsReport = Workload.create("statsReport");
+    }
+
+    /* The 14 movements of input1 before the winning one, and their undos */
+    @Benchmark
+    @OperationsPerInvocation(14)
+    public long moveAndUndo() {
+        return moveAndUndo.run();
+    }
+
+    /* 32 movements that kill at least 2 pawns each, and their undos */
+    @Benchmark
+    @OperationsPerInvocation(32)
+    public long captures() {
+        return captures.run();
+    }
+
+    @Benchmark
+    public long reset() {
+        return reset.run();
+    }
+
+    @Benchmark
+    public long replayInput1() {
+        return replayInput1.run();
+    }
+
+    @Benchmark
+    public long statsReport() {
+        return statsReport.run();
+    }
+}
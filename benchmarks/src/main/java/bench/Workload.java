@@ -0,0 +1,27 @@
+package bench;
+
+/**
+ * A unit of work on the game engine, prepared by GameWorkloads (which is in the default package, like the engine).
+ */
+public interface Workload {
+    /**
+     * Runs the work once.
+     *
+     * @return A value that depends on the work, to be consumed so that the JIT can't eliminate it.
+     */
+    long run();
+
+    /**
+     * Creates a workload by the name of its factory method in GameWorkloads.
+     *
+     * @param name Given name.
+     * @return The workload.
+     */
+    static Workload create(String name) {
+        try {
+            return (Workload) Class.forName("GameWorkloads").getMethod(name).invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Can't create workload " + name, e);
+        }
+    }
+}